@@ -0,0 +1,98 @@
+#!/bin/bash
+
+# A2A Weather Agent CRaC Benchmark
+# Compares startup time and first-request latency of a normal start with a restored start.
+# Requires a CRaC-enabled JDK (e.g. Azul Zulu with CRaC) and a packaged app (mvn package).
+
+set -e
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+PORT="${PORT:-8080}"
+AGENT_URL="http://localhost:$PORT"
+APP_JAR="target/quarkus-app/quarkus-run.jar"
+CHECKPOINT_DIR="${CHECKPOINT_DIR:-target/crac-checkpoint}"
+RUNS="${RUNS:-3}"
+START_TIMEOUT="${START_TIMEOUT:-60}"
+
+if [ ! -f "$APP_JAR" ]; then
+    print_error "$APP_JAR not found, run 'mvn package' first"
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Waits for the health endpoint and prints the elapsed time since $1 (ms); fails after
+# START_TIMEOUT seconds
+wait_for_agent() {
+    local start=$1
+    local deadline=$(( start + START_TIMEOUT * 1000 ))
+    until curl -s -o /dev/null -f "$AGENT_URL/agent/health"; do
+        if [ "$(now_ms)" -ge "$deadline" ]; then
+            return 1
+        fi
+        sleep 0.01
+    done
+    echo $(( $(now_ms) - start ))
+}
+
+# Prints the latency of the first JSON-RPC call (ms)
+first_request_latency() {
+    curl -s -o /dev/null -w '%{time_total}' -X POST "$AGENT_URL/jsonrpc" \
+        -H "Content-Type: application/json" \
+        -d '{"jsonrpc": "2.0", "method": "get_current_weather", "params": {"zip_code": "10001", "country_code": "us"}, "id": 1}' \
+        | awk '{ printf "%.1f", $1 * 1000 }'
+}
+
+run_and_measure() {
+    local label=$1
+    shift
+    local start
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    local pid=$!
+    local startup
+    if ! startup=$(wait_for_agent "$start"); then
+        kill "$pid" 2>/dev/null || true
+        print_error "$label agent did not come up within ${START_TIMEOUT}s"
+        exit 1
+    fi
+    local latency
+    latency=$(first_request_latency)
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    echo "$label startup=${startup}ms first_request=${latency}ms"
+}
+
+print_status "Creating checkpoint in $CHECKPOINT_DIR..."
+rm -rf "$CHECKPOINT_DIR"
+CRAC_CHECKPOINT_ON_START=true java -XX:CRaCCheckpointTo="$CHECKPOINT_DIR" -jar "$APP_JAR" > /dev/null 2>&1 || true
+if [ ! -d "$CHECKPOINT_DIR" ]; then
+    print_error "No checkpoint was created, is this a CRaC-enabled JDK?"
+    exit 1
+fi
+print_success "Checkpoint created"
+
+for i in $(seq 1 "$RUNS"); do
+    print_status "Run $i/$RUNS"
+    run_and_measure "normal  " java -jar "$APP_JAR"
+    run_and_measure "restored" java -XX:CRaCRestoreFrom="$CHECKPOINT_DIR"
+done
@@ -0,0 +1,159 @@
+#!/bin/bash
+
+# A2A Weather Agent Transport Benchmark
+# Compares per-call latency and throughput of the JSON-RPC, HTTP+JSON and gRPC transports
+# for the same get_current_weather call. Latency is measured over one reused connection per
+# transport: curl for JSON-RPC and HTTP+JSON, h2load (nghttp2) for gRPC. Throughput needs
+# h2load too and is skipped without it.
+
+set -e
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_warning() {
+    echo -e "${YELLOW}[WARNING]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+AGENT_URL="${1:-http://localhost:8080}"
+ZIP_CODE="${ZIP_CODE:-10001}"
+CALLS="${CALLS:-500}"
+REQUESTS="${REQUESTS:-20000}"
+CONCURRENCY="${CONCURRENCY:-32}"
+# Concurrent streams per connection for gRPC (HTTP/2 multiplexing)
+STREAMS="${STREAMS:-10}"
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+if ! curl -s -o /dev/null -f "$AGENT_URL/agent/health"; then
+    print_error "No agent at $AGENT_URL"
+    exit 1
+fi
+
+# Request bodies
+printf '{"jsonrpc": "2.0", "method": "get_current_weather", "params": {"zip_code": "%s", "country_code": "us"}, "id": 1}' \
+    "$ZIP_CODE" > "$WORK_DIR/jsonrpc.json"
+
+# Prints one byte given in decimal
+byte() {
+    printf "\\x$(printf '%02x' "$1")"
+}
+
+# gRPC frame: uncompressed flag, 4-byte length, then LocationRequest{zip_code, country_code}
+{ printf '\x0a'; byte ${#ZIP_CODE}; printf '%s' "$ZIP_CODE"; printf '\x12\x02us'; } > "$WORK_DIR/request.pb"
+{ printf '\x00\x00\x00\x00'; byte "$(wc -c < "$WORK_DIR/request.pb")"; cat "$WORK_DIR/request.pb"; } > "$WORK_DIR/grpc.bin"
+
+JSONRPC_URL="$AGENT_URL/jsonrpc"
+REST_URL="$AGENT_URL/v1/weather/$ZIP_CODE/current?country_code=us"
+GRPC_URL="$AGENT_URL/a2a.weather.v1.WeatherAgent/GetCurrentWeather"
+
+# Writes a curl config repeating one request $CALLS times
+curl_config() {
+    local url=$1
+    local config="$WORK_DIR/curl.conf"
+    : > "$config"
+    for _ in $(seq 1 "$CALLS"); do
+        echo "url = \"$url\"" >> "$config"
+        echo "output = /dev/null" >> "$config"
+    done
+    echo "$config"
+}
+
+# Prints p50/p95/p99/mean of per-call times (seconds in, ms out)
+summarize() {
+    sort -n | awk '{ t[NR] = $1 * 1000; sum += t[NR] }
+        END { printf "p50=%.2fms p95=%.2fms p99=%.2fms mean=%.2fms", t[int(NR * 0.50)], t[int(NR * 0.95)], t[int(NR * 0.99)], sum / NR }'
+}
+
+# Per-call time without TCP connect, so kept-alive and fresh connections compare fairly
+TIMING='%{time_total} %{time_connect}\n'
+
+measure_latency() {
+    local label=$1
+    local url=$2
+    shift 2
+    local config
+    config=$(curl_config "$url")
+    # Warm up the connection, JIT and cache first
+    curl -s -o /dev/null "$@" "$url"
+    echo "$label $(curl -s -w "$TIMING" -K "$config" "$@" | awk '{ print $1 - $2 }' | summarize)"
+}
+
+# gRPC over one HTTP/2 connection, one call at a time; h2load logs each response time in
+# microseconds as the third column
+measure_latency_h2load() {
+    local label=$1
+    shift
+    local log="$WORK_DIR/h2load.log"
+    h2load -n "$CALLS" -c 1 -m 1 --log-file="$log" "$@" > /dev/null
+    echo "$label $(awk -F'\t' '{ print $3 / 1000000 }' "$log" | summarize)"
+}
+
+# curl 7.88 cannot reuse an h2c prior-knowledge connection, so without h2load gRPC gets one
+# curl per call
+measure_latency_per_call() {
+    local label=$1
+    local url=$2
+    shift 2
+    curl -s -o /dev/null "$@" "$url"
+    echo "$label $(for _ in $(seq 1 "$CALLS"); do curl -s -o /dev/null -w "$TIMING" "$@" "$url"; done \
+        | awk '{ print $1 - $2 }' | summarize)"
+}
+
+measure_throughput() {
+    local label=$1
+    shift
+    local result
+    result=$(h2load "$@" | awk '/^finished in/ { rps = $4 } /^requests:/ { ok = $8; failed = $10 }
+        /^time for request:/ { mean = $6 }
+        END { printf "%s req/s, mean=%s, %s succeeded, %s failed", rps, mean, ok, failed }')
+    echo "$label $result"
+}
+
+print_status "Benchmarking $AGENT_URL with get_current_weather zip_code=$ZIP_CODE"
+
+print_status "Per-call latency ($CALLS sequential calls)"
+measure_latency "JSON-RPC " "$JSONRPC_URL" -X POST -H "Content-Type: application/json" --data-binary "@$WORK_DIR/jsonrpc.json"
+measure_latency "HTTP+JSON" "$REST_URL"
+if command -v h2load > /dev/null; then
+    # Warm up the gRPC path first, as measure_latency does
+    curl -s -o /dev/null --http2-prior-knowledge -H "Content-Type: application/grpc" -H "TE: trailers" \
+        --data-binary "@$WORK_DIR/grpc.bin" "$GRPC_URL"
+    measure_latency_h2load "gRPC     " -d "$WORK_DIR/grpc.bin" -H "Content-Type: application/grpc" -H "TE: trailers" \
+        "$GRPC_URL"
+else
+    print_warning "h2load not found, timing gRPC with a new connection per call"
+    measure_latency_per_call "gRPC     " "$GRPC_URL" --http2-prior-knowledge -H "Content-Type: application/grpc" \
+        -H "TE: trailers" --data-binary "@$WORK_DIR/grpc.bin"
+fi
+
+if ! command -v h2load > /dev/null; then
+    print_warning "h2load not found, skipping throughput (install nghttp2, e.g. 'apt-get install nghttp2-client')"
+    exit 0
+fi
+
+print_status "Throughput ($REQUESTS requests, $CONCURRENCY connections)"
+measure_throughput "JSON-RPC " --h1 -n "$REQUESTS" -c "$CONCURRENCY" -d "$WORK_DIR/jsonrpc.json" \
+    -H "Content-Type: application/json" "$JSONRPC_URL"
+measure_throughput "HTTP+JSON" --h1 -n "$REQUESTS" -c "$CONCURRENCY" "$REST_URL"
+measure_throughput "gRPC     " -n "$REQUESTS" -c "$CONCURRENCY" -m "$STREAMS" -d "$WORK_DIR/grpc.bin" \
+    -H "Content-Type: application/grpc" -H "TE: trailers" "$GRPC_URL"
+
+print_success "Benchmark complete"
@@ -0,0 +1,86 @@
+package io.a2a.examples.weather;
+
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Operator endpoints. Requests must send {@code weather.admin.token} as a bearer token; with
+ * no token configured the endpoints are disabled and answer 404.
+ */
+@Path("/admin")
+public class AdminResource {
+
+    @Inject
+    Prefetcher prefetcher;
+
+    @Inject
+    FlightRecorder flightRecorder;
+
+    @Inject
+    @ConfigProperty(name = "weather.admin.token")
+    Optional<String> adminToken;
+
+    @GET
+    @Path("/hot-locations")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getHotLocations(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization,
+                                    @QueryParam("limit") @DefaultValue("50") int limit) {
+        if (!isEnabled()) {
+            return disabled();
+        }
+        if (!isAuthorized(authorization)) {
+            return unauthorized();
+        }
+        return Response.ok(prefetcher.hotSet(Math.max(1, limit))).build();
+    }
+
+    @GET
+    @Path("/slow-requests")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSlowRequests(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (!isEnabled()) {
+            return disabled();
+        }
+        if (!isAuthorized(authorization)) {
+            return unauthorized();
+        }
+        return Response.ok(flightRecorder.snapshot()).build();
+    }
+
+    private boolean isEnabled() {
+        return adminToken.isPresent() && !adminToken.get().trim().isEmpty();
+    }
+
+    private boolean isAuthorized(String authorization) {
+        String expected = "Bearer " + adminToken.get().trim();
+        return authorization != null && MessageDigest.isEqual(
+            expected.getBytes(StandardCharsets.UTF_8), authorization.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Response disabled() {
+        return Response.status(Response.Status.NOT_FOUND)
+            .entity(Map.of("error", "Admin endpoints are disabled; set ADMIN_TOKEN to enable them",
+                "error_code", "ADMIN_DISABLED"))
+            .build();
+    }
+
+    private Response unauthorized() {
+        return Response.status(Response.Status.UNAUTHORIZED)
+            .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+            .entity(Map.of("error", "Admin token required", "error_code", "UNAUTHORIZED"))
+            .build();
+    }
+}
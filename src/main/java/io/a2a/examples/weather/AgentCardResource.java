@@ -4,12 +4,17 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.core.Variant;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 
 @Path("/agent")
 public class AgentCardResource {
@@ -17,21 +22,64 @@ public class AgentCardResource {
     @Inject
     UriInfo uriInfo;
 
+    @Inject
+    Request request;
+
+    @Inject
+    @ConfigProperty(name = "weather.grpc.advertise", defaultValue = "auto")
+    String grpcAdvertise;
+
+    /**
+     * Whether clients reaching the agent at {@code baseUrl} can use gRPC, which is served on
+     * the HTTP port over HTTP/2: {@code true}, {@code false}, or {@code auto} to advertise it
+     * except behind the Heroku router, which does not forward HTTP/2 to dynos.
+     */
+    static boolean grpcReachable(String advertise, String baseUrl) {
+        switch (advertise.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            default:
+                return !baseUrl.endsWith(".herokuapp.com");
+        }
+    }
+
+    static List<String> supportedTransports(boolean grpc) {
+        return grpc ? List.of("JSONRPC", "GRPC", "HTTP+JSON") : List.of("JSONRPC", "HTTP+JSON");
+    }
+
+    /**
+     * Every reachable transport with its URL, as A2A {@code additionalInterfaces}.
+     */
+    static List<Map<String, Object>> interfaces(String baseUrl, boolean grpc) {
+        List<Map<String, Object>> interfaces = new ArrayList<>();
+        interfaces.add(Map.of("url", baseUrl + "/jsonrpc", "transport", "JSONRPC"));
+        if (grpc) {
+            interfaces.add(Map.of("url", baseUrl, "transport", "GRPC"));
+        }
+        interfaces.add(Map.of("url", baseUrl + "/v1", "transport", "HTTP+JSON"));
+        return interfaces;
+    }
+
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
     public Response getAgentCard() {
-        Map<String, Object> agentCard = Map.of(
+        boolean grpc = grpcReachable(grpcAdvertise, getBaseUrl());
+        Map<String, Object> agentCard = new HashMap<>(Map.of(
             "name", "Weather A2A Agent",
             "description", "An A2A agent that provides weather information by ZIP code using OpenWeatherMap API with mock data fallback",
             "version", "1.0.0",
             "url", getBaseUrl(),
             "protocolVersion", "0.3.0",
             "capabilities", Map.of(
-                "streaming", false,
+                "streaming", true,
                 "pushNotifications", false,
-                "stateTransitionHistory", false,
-                "supportedTransports", List.of("JSONRPC"),
-                "supportedProtocols", List.of("A2A-0.3.0")
+                "stateTransitionHistory", true,
+                "supportedTransports", supportedTransports(grpc),
+                "supportedProtocols", List.of("A2A-0.3.0"),
+                "supportedContentTypes", BinaryJsonProvider.SUPPORTED_CONTENT_TYPES,
+                "supportedContentEncodings", ResponseCompression.supportedEncodings()
             ),
             "skills", List.of(
                 Map.of(
@@ -39,21 +87,21 @@ public class AgentCardResource {
                     "name", "Current Weather",
                     "description", "Get current weather conditions including temperature, humidity, wind, and conditions by ZIP code",
                     "tags", List.of("weather", "current", "temperature", "conditions"),
-                    "examples", List.of("get_current_weather zip_code='10001' country_code='us'")
+                    "examples", List.of("get_current_weather zip_code='10001' country_code='us'", "get_current_weather zip_code='10001' country_code='us' units='metric'")
                 ),
                 Map.of(
                     "id", "get_weather_forecast",
                     "name", "Weather Forecast", 
                     "description", "Get 5-day weather forecast with detailed daily conditions and precipitation chances",
                     "tags", List.of("weather", "forecast", "5-day", "precipitation"),
-                    "examples", List.of("get_weather_forecast zip_code='10001' country_code='us'")
+                    "examples", List.of("get_weather_forecast zip_code='10001' country_code='us'", "get_weather_forecast zip_code='10001' country_code='us' units='metric'")
                 ),
                 Map.of(
                     "id", "get_weather_alerts",
                     "name", "Weather Alerts",
-                    "description", "Get weather alerts, warnings, and advisories for a specific area",
+                    "description", "Get weather alerts, warnings, and advisories for a specific area, or only the changes since a cursor",
                     "tags", List.of("weather", "alerts", "warnings", "advisories"),
-                    "examples", List.of("get_weather_alerts zip_code='10001' country_code='us'")
+                    "examples", List.of("get_weather_alerts zip_code='10001' country_code='us'", "get_weather_alerts zip_code='10001' since='<cursor>' wait=30")
                 ),
                 Map.of(
                     "id", "get_weather_history",
@@ -73,14 +121,16 @@ public class AgentCardResource {
                 "author", "A2A Weather Agent Team",
                 "license", "MIT"
             )
-        );
+        ));
+        agentCard.put("preferredTransport", "JSONRPC");
+        agentCard.put("additionalInterfaces", interfaces(getBaseUrl(), grpc));
 
-        return Response.ok(agentCard).build();
+        return negotiated(agentCard);
     }
 
     @GET
     @Path("/extendedCard")
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
     public Response getExtendedAgentCard() {
         Map<String, Object> extendedCard = new HashMap<>();
         @SuppressWarnings("unchecked")
@@ -91,6 +141,7 @@ public class AgentCardResource {
         extendedCard.put("extendedInfo", Map.of(
             "supportedCountries", List.of("US", "CA", "GB", "DE", "FR", "IT", "ES", "AU", "JP", "BR"),
             "supportedLanguages", List.of("en", "es", "fr", "de", "it"),
+            "supportedUnits", List.of("imperial", "metric", "standard"),
             "dataSources", List.of("OpenWeatherMap", "Mock Data"),
             "updateFrequency", "Real-time",
             "maxRequestsPerDay", 1000,
@@ -98,18 +149,23 @@ public class AgentCardResource {
             "dataRetention", "24 hours"
         ));
         
-        extendedCard.put("endpoints", Map.of(
+        Map<String, Object> endpoints = new HashMap<>(Map.of(
             "jsonrpc", getBaseUrl() + "/jsonrpc",
+            "rest", getBaseUrl() + "/v1",
             "health", getBaseUrl() + "/agent/health",
             "status", getBaseUrl() + "/agent/status"
         ));
+        if (grpcReachable(grpcAdvertise, getBaseUrl())) {
+            endpoints.put("grpc", getBaseUrl());
+        }
+        extendedCard.put("endpoints", endpoints);
 
-        return Response.ok(extendedCard).build();
+        return negotiated(extendedCard);
     }
 
     @GET
     @Path("/authenticatedExtendedCard")
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
     public Response getAuthenticatedExtendedAgentCard() {
         Map<String, Object> authCard = new HashMap<>();
         @SuppressWarnings("unchecked")
@@ -129,12 +185,12 @@ public class AgentCardResource {
             "environmentVariable", "OPENWEATHER_API_KEY"
         ));
 
-        return Response.ok(authCard).build();
+        return negotiated(authCard);
     }
 
     @GET
     @Path("/health")
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
     public Response getHealth() {
         Map<String, Object> health = Map.of(
             "status", "UP",
@@ -147,7 +203,15 @@ public class AgentCardResource {
             "weatherMode", System.getenv("OPENWEATHER_API_KEY") != null && !System.getenv("OPENWEATHER_API_KEY").isEmpty() ? "OpenWeatherMap" : "MOCK"
         );
 
-        return Response.ok(health).build();
+        return negotiated(health);
+    }
+
+    private Response negotiated(Map<String, Object> entity) {
+        Variant variant = request != null ? request.selectVariant(BinaryJsonProvider.VARIANTS) : null;
+        if (variant == null) {
+            return Response.ok(entity, MediaType.APPLICATION_JSON_TYPE).build();
+        }
+        return Response.ok(entity, variant).build();
     }
 
     private String getBaseUrl() {
@@ -0,0 +1,29 @@
+package io.a2a.examples.weather;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where weather alerts come from. {@link AlertStore} polls a source per region and works
+ * out which alerts are new, updated or expired, so a source only has to report what is
+ * currently issued.
+ *
+ * Each alert is a map with a stable {@code id} plus {@code type}, {@code severity},
+ * {@code description}, {@code start_time} and {@code end_time} (epoch millis). Failures
+ * surface as {@link IOException} so the store can keep the alerts it already has.
+ */
+public interface AlertSource extends AutoCloseable {
+
+    List<Map<String, Object>> fetch(String zipCode, String countryCode) throws IOException;
+
+    String type();
+
+    /**
+     * Shown as {@code data_source} in alert results.
+     */
+    String dataSource();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,484 @@
+package io.a2a.examples.weather;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weather alerts indexed by region, with an incremental feed.
+ *
+ * Regions are polled from the configured {@link AlertSource} while callers keep asking for
+ * them. Every new, updated or expired alert gets the next number of one store-wide sequence
+ * and goes into a bounded per-region change log. A cursor is that sequence number, tagged
+ * with the store's start time so cursors from another instance or run force a full reload
+ * instead of silently missing changes.
+ *
+ * Callers without a cursor, or whose cursor is older than the change log, get every active
+ * alert. Callers with a cursor get only the changes after it, and can wait for the next
+ * change when there is none yet, or {@link #watch} a region to be told about each change.
+ * Waiting holds no thread: the result completes when the region changes or the wait ends.
+ */
+@ApplicationScoped
+public class AlertStore {
+
+    private static final Logger LOG = Logger.getLogger(AlertStore.class);
+
+    static final String NEW = "new";
+    static final String UPDATED = "updated";
+    static final String EXPIRED = "expired";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.source", defaultValue = "fixture")
+    String sourceType;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.fixture.path")
+    Optional<String> fixturePath;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.poll-interval", defaultValue = "30")
+    long pollIntervalSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.region-idle-timeout", defaultValue = "3600")
+    long regionIdleTimeoutSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.max-regions", defaultValue = "10000")
+    int maxRegions;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.history", defaultValue = "200")
+    int historySize;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.long-poll.max-wait", defaultValue = "30")
+    long maxWaitSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.alerts.long-poll.max-waiters", defaultValue = "200")
+    int maxWaiters;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private volatile AlertSource source;
+    private volatile boolean sourceOpened;
+    private ScheduledExecutorService executor;
+
+    void onStart(@Observes StartupEvent event) {
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        stop();
+    }
+
+    /**
+     * Alerts for a region: every active alert when {@code since} is null or too old, else
+     * the changes after it, each tagged with {@code change}. With {@code waitMillis} above
+     * zero and nothing new, completes on the next change or after that long (capped).
+     *
+     * @return {@code alerts}, {@code cursor} for the next call and {@code full}, which is
+     *         true when {@code alerts} is the complete active set
+     * @throws IllegalArgumentException if {@code since} is not a cursor
+     */
+    public CompletionStage<Map<String, Object>> query(String zipCode, String countryCode, String since, long waitMillis) {
+        Cursor cursor = since != null ? Cursor.parse(since) : null;
+        Region region = region(zipCode, countryCode);
+        region.lastAccess = System.currentTimeMillis();
+        if (region.isStale(pollIntervalSeconds * 1000)) {
+            refresh(region);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(waitMillis, maxWaitSeconds * 1000));
+        return next(region, cursor, waitMillis > 0, deadline, FlightRecorder.current());
+    }
+
+    /**
+     * Runs {@code listener} after every change to a region's alerts, until the returned
+     * action is run. Watched regions keep being polled even when nobody queries them. The
+     * listener is called on the polling thread and should hand off any real work.
+     */
+    public Runnable watch(String zipCode, String countryCode, Runnable listener) {
+        Region region = region(zipCode, countryCode);
+        region.lastAccess = System.currentTimeMillis();
+        region.listeners.add(listener);
+        return () -> region.listeners.remove(listener);
+    }
+
+    public String dataSource() {
+        AlertSource current = source();
+        return current != null ? current.dataSource() : "No alert source configured";
+    }
+
+    public Map<String, Object> stats() {
+        AlertSource current = source();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("source", current != null ? current.type() : "none");
+        stats.put("regions", regions.size());
+        stats.put("sequence", sequence.get());
+        stats.put("waiting", waiters.get());
+        return stats;
+    }
+
+    synchronized void start() {
+        if (executor != null || pollIntervalSeconds <= 0) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "weather-alerts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::poll, pollIntervalSeconds, pollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops polling. Used at shutdown and before a CRaC checkpoint; known alerts are kept,
+     * and requests still refresh stale regions themselves.
+     */
+    synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    private void poll() {
+        try {
+            long idleBefore = System.currentTimeMillis() - regionIdleTimeoutSeconds * 1000;
+            for (Map.Entry<String, Region> entry : regions.entrySet()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (entry.getValue().listeners.isEmpty() && entry.getValue().lastAccess < idleBefore) {
+                    regions.remove(entry.getKey(), entry.getValue());
+                } else {
+                    refresh(entry.getValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive
+            LOG.warnf("Alert poll failed: %s", e.getMessage());
+        }
+    }
+
+    private void refresh(Region region) {
+        AlertSource current = source();
+        long fetchedAt = System.currentTimeMillis();
+        List<Map<String, Object>> fetched = List.of();
+        boolean fetchFailed = false;
+        if (current != null) {
+            try {
+                fetched = current.fetch(region.zipCode, region.countryCode);
+            } catch (IOException | RuntimeException e) {
+                LOG.debugf("Alert fetch failed for %s: %s", region.key(), e.getMessage());
+                fetchFailed = true;
+            }
+        }
+
+        boolean changed;
+        List<CompletableFuture<Boolean>> woken = List.of();
+        synchronized (region) {
+            if (fetchedAt < region.lastRefresh) {
+                // A request and the poller raced; a newer fetch is already applied
+                return;
+            }
+            // On failure keep what we have, but still let past alerts expire
+            changed = region.apply(fetchFailed ? new ArrayList<>(region.active.values()) : fetched,
+                                   System.currentTimeMillis(), sequence, historySize);
+            region.lastRefresh = fetchedAt;
+            if (changed && !region.waiting.isEmpty()) {
+                woken = new ArrayList<>(region.waiting);
+                region.waiting.clear();
+            }
+        }
+
+        // Outside the lock, since waking a long-poll goes on to finish its request
+        for (CompletableFuture<Boolean> waiter : woken) {
+            waiter.complete(true);
+        }
+        if (changed) {
+            for (Runnable listener : region.listeners) {
+                listener.run();
+            }
+        }
+    }
+
+    private Region region(String zipCode, String countryCode) {
+        String key = countryCode.toLowerCase() + ":" + zipCode;
+        Region region = regions.get(key);
+        if (region != null) {
+            return region;
+        }
+
+        if (regions.size() >= maxRegions) {
+            evictLeastRecentlyUsed();
+        }
+        // A new region takes a sequence number of its own, so cursors from before it was
+        // created (or last evicted) force a full reload
+        return regions.computeIfAbsent(key, k -> new Region(zipCode, countryCode.toLowerCase(), sequence.incrementAndGet()));
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<String, Region> oldest = null;
+        for (Map.Entry<String, Region> entry : regions.entrySet()) {
+            if (!entry.getValue().listeners.isEmpty()) {
+                continue;
+            }
+            if (oldest == null || entry.getValue().lastAccess < oldest.getValue().lastAccess) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            regions.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    /**
+     * Answers from the region's current state, or parks a waiter on it that completes with
+     * true on the next change and false at the deadline, then answers again.
+     */
+    private CompletionStage<Map<String, Object>> next(Region region, Cursor cursor, boolean wait, long deadline,
+                                                      FlightRecorder.Trace trace) {
+        CompletableFuture<Boolean> waiter = new CompletableFuture<>();
+        long remaining;
+        synchronized (region) {
+            if (cursor == null || !cursor.isCurrent(epoch, sequence.get(), region.trimmedThrough)) {
+                return CompletableFuture.completedFuture(result(region.activeAlerts(), region.lastSeq, true));
+            }
+            List<Map<String, Object>> changes = region.changesAfter(cursor.seq);
+            if (!changes.isEmpty() || !wait) {
+                return CompletableFuture.completedFuture(result(changes, Math.max(cursor.seq, region.lastSeq), false));
+            }
+
+            remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return CompletableFuture.completedFuture(result(List.of(), cursor.seq, false));
+            }
+            if (waiters.incrementAndGet() > maxWaiters) {
+                // Too many held requests; answer right away and let the caller poll again
+                waiters.decrementAndGet();
+                return CompletableFuture.completedFuture(result(List.of(), cursor.seq, false));
+            }
+            region.waiting.add(waiter);
+        }
+
+        long waitStart = System.nanoTime();
+        waiter.completeOnTimeout(false, remaining, TimeUnit.NANOSECONDS);
+        return waiter.thenCompose(changed -> {
+            waiters.decrementAndGet();
+            if (trace != null) {
+                trace.add(FlightRecorder.Phase.WAIT, System.nanoTime() - waitStart);
+            }
+            if (!changed) {
+                synchronized (region) {
+                    region.waiting.remove(waiter);
+                }
+                return CompletableFuture.completedFuture(result(List.of(), cursor.seq, false));
+            }
+            return next(region, cursor, true, deadline, trace);
+        });
+    }
+
+    private AlertSource source() {
+        if (!sourceOpened) {
+            openSource();
+        }
+        return source;
+    }
+
+    private synchronized void openSource() {
+        if (sourceOpened) {
+            return;
+        }
+
+        try {
+            switch (sourceType.trim().toLowerCase()) {
+                case "none":
+                case "":
+                    break;
+                case "fixture":
+                    Path path = fixturePath.filter(p -> !p.isBlank()).map(p -> Path.of(p.trim())).orElse(null);
+                    source = new FixtureAlertSource(objectMapper, path);
+                    LOG.infof("Using fixture alert source (%s)", path != null ? path : "bundled fixture");
+                    break;
+                default:
+                    LOG.warnf("Unknown alert source '%s', serving no alerts", sourceType);
+            }
+        } catch (IOException e) {
+            LOG.warnf("Could not load alert fixture, serving no alerts: %s", e.getMessage());
+        }
+        sourceOpened = true;
+    }
+
+    private Map<String, Object> result(List<Map<String, Object>> alerts, long seq, boolean full) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("alerts", alerts);
+        result.put("cursor", epoch + "-" + seq);
+        result.put("full", full);
+        return result;
+    }
+
+    private static final class Cursor {
+        final String epoch;
+        final long seq;
+
+        private Cursor(String epoch, long seq) {
+            this.epoch = epoch;
+            this.seq = seq;
+        }
+
+        static Cursor parse(String cursor) {
+            int dash = cursor.indexOf('-');
+            try {
+                long seq = Long.parseLong(cursor.substring(dash + 1));
+                if (dash > 0 && seq >= 0) {
+                    return new Cursor(cursor.substring(0, dash), seq);
+                }
+            } catch (NumberFormatException e) {
+                // Fall through
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        /**
+         * Whether the changes after this cursor are all still in the region's change log.
+         */
+        boolean isCurrent(String currentEpoch, long currentSeq, long trimmedThrough) {
+            return epoch.equals(currentEpoch) && seq <= currentSeq && seq >= trimmedThrough;
+        }
+    }
+
+    private static final class Change {
+        final long seq;
+        final Map<String, Object> alert;
+
+        Change(long seq, String change, Map<String, Object> alert) {
+            this.seq = seq;
+            this.alert = new HashMap<>(alert);
+            this.alert.put("change", change);
+        }
+    }
+
+    /**
+     * One region's active alerts and change log. Guarded by its own monitor.
+     */
+    private static final class Region {
+        final String zipCode;
+        final String countryCode;
+        final Map<String, Map<String, Object>> active = new LinkedHashMap<>();
+        final ArrayDeque<Change> changes = new ArrayDeque<>();
+        final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+        // Long-polls parked until the next change
+        final List<CompletableFuture<Boolean>> waiting = new ArrayList<>();
+        long lastSeq;
+        long trimmedThrough;
+        volatile long lastRefresh;
+        volatile long lastAccess;
+
+        Region(String zipCode, String countryCode, long createdSeq) {
+            this.zipCode = zipCode;
+            this.countryCode = countryCode;
+            this.lastSeq = createdSeq;
+            this.trimmedThrough = createdSeq;
+        }
+
+        String key() {
+            return countryCode + ":" + zipCode;
+        }
+
+        boolean isStale(long maxAgeMillis) {
+            return lastRefresh == 0 || System.currentTimeMillis() - lastRefresh >= maxAgeMillis;
+        }
+
+        /**
+         * Replaces the active alerts with a fetched set, logging the differences. Returns
+         * whether anything changed.
+         */
+        boolean apply(List<Map<String, Object>> fetched, long now, AtomicLong sequence, int historySize) {
+            boolean changedAny = false;
+            Map<String, Map<String, Object>> current = new LinkedHashMap<>();
+            for (Map<String, Object> alert : fetched) {
+                Object id = alert.get("id");
+                Object endTime = alert.get("end_time");
+                if (id == null || (endTime instanceof Number && ((Number) endTime).longValue() <= now)) {
+                    continue;
+                }
+                current.put(id.toString(), alert);
+            }
+
+            for (Map.Entry<String, Map<String, Object>> entry : active.entrySet()) {
+                if (!current.containsKey(entry.getKey())) {
+                    record(sequence, EXPIRED, entry.getValue(), historySize);
+                    changedAny = true;
+                }
+            }
+            for (Map.Entry<String, Map<String, Object>> entry : current.entrySet()) {
+                Map<String, Object> previous = active.get(entry.getKey());
+                if (previous == null || !previous.equals(entry.getValue())) {
+                    record(sequence, previous == null ? NEW : UPDATED, entry.getValue(), historySize);
+                    changedAny = true;
+                }
+            }
+
+            active.clear();
+            active.putAll(current);
+            return changedAny;
+        }
+
+        List<Map<String, Object>> activeAlerts() {
+            return new ArrayList<>(active.values());
+        }
+
+        List<Map<String, Object>> changesAfter(long seq) {
+            List<Map<String, Object>> after = new ArrayList<>();
+            for (Change change : changes) {
+                if (change.seq > seq) {
+                    after.add(change.alert);
+                }
+            }
+            return after;
+        }
+
+        private void record(AtomicLong sequence, String change, Map<String, Object> alert, int historySize) {
+            lastSeq = sequence.incrementAndGet();
+            changes.addLast(new Change(lastSeq, change, alert));
+            while (changes.size() > historySize) {
+                trimmedThrough = changes.removeFirst().seq;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.a2a.examples.weather;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Variant;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes CBOR and Smile bodies so machine callers can opt into a denser
+ * encoding than JSON text via {@code Content-Type} and {@code Accept}.
+ */
+@Provider
+@Consumes({BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
+@Produces({BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
+public class BinaryJsonProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    public static final List<String> SUPPORTED_CONTENT_TYPES = List.of(
+        MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE
+    );
+
+    // For resources returning Response, which must pick the variant themselves
+    public static final List<Variant> VARIANTS = Variant.mediaTypes(
+        MediaType.APPLICATION_JSON_TYPE, MediaType.valueOf(APPLICATION_CBOR), MediaType.valueOf(APPLICATION_SMILE)
+    ).build();
+
+    // The container owns the entity stream, so the mappers must not close it
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+        .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory())
+        .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mapperFor(mediaType) != null;
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        ObjectMapper mapper = mapperFor(mediaType);
+        return mapper.readValue(entityStream, mapper.constructType(genericType));
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mapperFor(mediaType) != null;
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        mapperFor(mediaType).writeValue(entityStream, value);
+    }
+
+    private ObjectMapper mapperFor(MediaType mediaType) {
+        if (mediaType == null) {
+            return null;
+        }
+
+        String type = mediaType.getType() + "/" + mediaType.getSubtype();
+        if (APPLICATION_CBOR.equalsIgnoreCase(type)) {
+            return cborMapper;
+        }
+        if (APPLICATION_SMILE.equalsIgnoreCase(type)) {
+            return smileMapper;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+package io.a2a.examples.weather;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary cache snapshot file format.
+ *
+ * <pre>
+ * int   magic ("WCS1")
+ * int   record count
+ * per record:
+ *   short key length, key bytes (UTF-8)
+ *   long  expires at (epoch millis)
+ *   int   payload length, payload bytes (Smile-encoded value)
+ * </pre>
+ *
+ * Files are written to a temporary sibling and atomically moved into place, so a reader
+ * never sees a partial snapshot and an existing mapping of the old file stays valid.
+ */
+final class CacheSnapshot {
+
+    private static final int MAGIC = 0x57435331;
+
+    private CacheSnapshot() {
+    }
+
+    static final class Record {
+        final String key;
+        final long expiresAt;
+        final ByteBuffer payload;
+
+        Record(String key, long expiresAt, ByteBuffer payload) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Maps the snapshot and returns records that have not expired by {@code now}. Payloads
+     * are slices of the mapping and are not decoded here. A missing file yields no records.
+     */
+    static List<Record> read(Path path, long now) throws IOException {
+        List<Record> records = new ArrayList<>();
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return records;
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a cache snapshot");
+            }
+
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(key);
+                long expiresAt = buffer.getLong();
+                int length = buffer.getInt();
+
+                int offset = buffer.position();
+                buffer.position(offset + length);
+
+                // Expired entries are dropped without touching their payload
+                if (expiresAt > now) {
+                    records.add(new Record(new String(key, StandardCharsets.UTF_8), expiresAt,
+                                           buffer.slice(offset, length)));
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("truncated cache snapshot", e);
+        }
+        return records;
+    }
+
+    static void write(Path path, List<Record> records) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(records.size());
+                for (Record record : records) {
+                    byte[] key = record.key.getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(key.length);
+                    out.write(key);
+                    out.writeLong(record.expiresAt);
+                    byte[] payload = toBytes(record.payload);
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static byte[] toBytes(ByteBuffer buffer) {
+        ByteBuffer source = buffer.duplicate();
+        if (source.hasArray() && source.arrayOffset() == 0 && source.position() == 0
+                && source.remaining() == source.array().length) {
+            return source.array();
+        }
+        byte[] bytes = new byte[source.remaining()];
+        source.get(bytes);
+        return bytes;
+    }
+}
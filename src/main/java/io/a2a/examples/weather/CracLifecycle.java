@@ -0,0 +1,267 @@
+package io.a2a.examples.weather;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.jboss.logging.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CRaC (Coordinated Restore at Checkpoint) support.
+ *
+ * Before a checkpoint the JSON-RPC dispatch, Jackson codecs, mock generators and agent
+ * card rendering are warmed up, then WebSocket sessions, upstream connections and
+ * background schedulers are closed so no sockets or threads end up mid-work in the image. After restore they are
+ * reopened and the cache snapshot is reloaded. The HTTP listener itself is closed and
+ * reopened by Quarkus.
+ *
+ * With {@code weather.crac.checkpoint-on-start=true} the agent checkpoints itself as soon
+ * as it is up; otherwise a checkpoint can be requested with {@code jcmd <pid> JDK.checkpoint}.
+ * On JVMs without CRaC support registration is a no-op.
+ */
+@ApplicationScoped
+public class CracLifecycle implements Resource {
+
+    private static final Logger LOG = Logger.getLogger(CracLifecycle.class);
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    WeatherCache weatherCache;
+
+    @Inject
+    Prefetcher prefetcher;
+
+    @Inject
+    AlertStore alertStore;
+
+    @Inject
+    WeatherSkills weatherSkills;
+
+    @Inject
+    JsonRpcWebSocket jsonRpcWebSocket;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    @ConfigProperty(name = "quarkus.http.port", defaultValue = "8080")
+    int httpPort;
+
+    @Inject
+    @ConfigProperty(name = "weather.crac.checkpoint-on-start", defaultValue = "false")
+    boolean checkpointOnStart;
+
+    @Inject
+    @ConfigProperty(name = "weather.crac.warmup.iterations", defaultValue = "500")
+    int warmupIterations;
+
+    private volatile boolean warmedUp;
+
+    void onStart(@Observes StartupEvent event) {
+        // org.crac only keeps a weak reference; this bean is a singleton so it stays reachable
+        Core.getGlobalContext().register(this);
+
+        if (checkpointOnStart) {
+            Thread checkpointThread = new Thread(this::checkpoint, "crac-checkpoint");
+            checkpointThread.setDaemon(true);
+            checkpointThread.start();
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        if (!warmedUp) {
+            warmUp(false);
+        }
+        jsonRpcWebSocket.closeAll();
+        prefetcher.stop();
+        alertStore.stop();
+        weatherCache.stopSnapshots();
+        weatherCache.closeSharedTier();
+        weatherService.closeConnections();
+        LOG.info("Upstream connections and schedulers closed for checkpoint");
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        weatherService.openConnections();
+        weatherCache.openSharedTier();
+        weatherCache.loadSnapshot();
+        weatherCache.startSnapshots();
+        prefetcher.start();
+        alertStore.start();
+        LOG.info("Restored from checkpoint, upstream connections and schedulers reopened");
+    }
+
+    private void checkpoint() {
+        warmUp(awaitHttp());
+        try {
+            Core.checkpointRestore();
+        } catch (UnsupportedOperationException e) {
+            LOG.warn("CRaC is not supported by this JVM, continuing without a checkpoint");
+        } catch (Exception e) {
+            LOG.warn("Checkpoint failed, continuing without a checkpoint", e);
+        }
+    }
+
+    /**
+     * Warms up everything a first request would touch. The loopback pass goes through the
+     * real HTTP stack, so endpoints, content negotiation, compression and tasks run as they
+     * would for a client; the in-process pass covers the skills and codecs underneath when
+     * the listener is not reachable (e.g. a checkpoint triggered via jcmd while the server
+     * is shutting down).
+     */
+    void warmUp(boolean loopback) {
+        long start = System.currentTimeMillis();
+        List<String> methods = warmupMethods();
+
+        try {
+            weatherService.warmUp(warmupIterations);
+
+            for (int i = 0; i < warmupIterations; i++) {
+                for (String method : methods) {
+                    if (method.startsWith("get_")) {
+                        Map<String, Object> result = weatherSkills.execute(method, warmupRequest(method, i).get("params"));
+                        objectMapper.readValue(objectMapper.writeValueAsBytes(result), Map.class);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("In-process warm-up failed", e);
+        }
+
+        if (loopback) {
+            warmUpOverHttp(methods);
+        }
+
+        warmedUp = true;
+        LOG.infof("Warm-up finished in %d ms", System.currentTimeMillis() - start);
+    }
+
+    private void warmUpOverHttp(List<String> methods) {
+        String base = "http://localhost:" + httpPort;
+        int iterations = Math.max(1, warmupIterations / 10);
+
+        // Each body encoding, answered in the same encoding and compressed
+        Map<String, ObjectMapper> codecs = Map.of(
+            "application/json", objectMapper,
+            BinaryJsonProvider.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()),
+            BinaryJsonProvider.APPLICATION_SMILE, new ObjectMapper(new SmileFactory())
+        );
+        List<String> encodings = List.of("identity", "gzip", "br");
+
+        // Content decompression is off so responses arrive exactly as clients would see them
+        try (CloseableHttpClient client = HttpClients.custom().disableContentCompression().build()) {
+            for (int i = 0; i < iterations; i++) {
+                String encoding = encodings.get(i % encodings.size());
+                for (Map.Entry<String, ObjectMapper> codec : codecs.entrySet()) {
+                    for (String method : methods) {
+                        post(client, base + "/jsonrpc", codec.getKey(), encoding,
+                             codec.getValue().writeValueAsBytes(warmupRequest(method, i)));
+                    }
+                }
+
+                // A2A tasks over both bindings; the history skill never calls upstream
+                Map<String, Object> message = Map.of(
+                    "message", Map.of(
+                        "role", "user",
+                        "messageId", "warmup-" + i,
+                        "parts", List.of(Map.of("kind", "data",
+                            "data", Map.of("skill", "get_weather_history", "zip_code", "10001")))
+                    ),
+                    "configuration", Map.of("blocking", true)
+                );
+                post(client, base + "/jsonrpc", "application/json", encoding, objectMapper.writeValueAsBytes(
+                    Map.of("jsonrpc", "2.0", "method", "message/send", "params", message, "id", i)));
+                post(client, base + "/v1/message:send", "application/json", encoding,
+                     objectMapper.writeValueAsBytes(message));
+
+                for (String path : List.of("/", "/agent", "/agent/extendedCard", "/agent/health",
+                                           "/v1/weather/10001/alerts", "/v1/weather/10001/history")) {
+                    HttpGet get = new HttpGet(base + path);
+                    get.setHeader("Accept-Encoding", encoding);
+                    try (CloseableHttpResponse response = client.execute(get)) {
+                        EntityUtils.consume(response.getEntity());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Loopback warm-up failed", e);
+        }
+    }
+
+    private static void post(CloseableHttpClient client, String url, String contentType, String encoding,
+                             byte[] body) throws Exception {
+        HttpPost post = new HttpPost(url);
+        post.setHeader("Accept", contentType);
+        post.setHeader("Accept-Encoding", encoding);
+        post.setEntity(new ByteArrayEntity(body, ContentType.create(contentType)));
+        try (CloseableHttpResponse response = client.execute(post)) {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+
+    private boolean awaitHttp() {
+        HttpGet health = new HttpGet("http://localhost:" + httpPort + "/agent/health");
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            for (int attempt = 0; attempt < 100; attempt++) {
+                try (CloseableHttpResponse response = client.execute(health)) {
+                    EntityUtils.consume(response.getEntity());
+                    if (response.getStatusLine().getStatusCode() == 200) {
+                        return true;
+                    }
+                } catch (Exception e) {
+                    // Listener not up yet
+                }
+                Thread.sleep(100);
+            }
+        } catch (Exception e) {
+            // Fall through to in-process warm-up only
+        }
+        return false;
+    }
+
+    private List<String> warmupMethods() {
+        List<String> methods = new ArrayList<>(List.of(
+            "agent.discover", "agent.info", "agent.getCapabilities", "agent.getSkills",
+            "agent.health", "agent.status", "get_weather_alerts", "get_weather_history"
+        ));
+
+        // Never spend upstream quota on warm-up; the parsers are covered by WeatherService.warmUp
+        if (!weatherService.isConfigured()) {
+            methods.add("get_current_weather");
+            methods.add("get_weather_forecast");
+        }
+        return methods;
+    }
+
+    private static Map<String, Object> warmupRequest(String method, int id) {
+        return Map.of(
+            "jsonrpc", "2.0",
+            "method", method,
+            "params", Map.of("zip_code", "10001", "country_code", "us"),
+            "id", id
+        );
+    }
+}
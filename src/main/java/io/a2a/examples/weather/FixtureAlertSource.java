@@ -0,0 +1,186 @@
+package io.a2a.examples.weather;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in alert feed driven by a JSON fixture, for local development and tests where no
+ * live alert service is available (OpenWeatherMap has none in the free tier).
+ *
+ * The fixture maps regions ({@code "us:10001"}, or {@code "*"} for every region) to alert
+ * schedules. Times are seconds relative to when the source was created:
+ * <pre>
+ * {"regions": {"*": [{"id": "heat-advisory", "type": "Heat Advisory", "severity": "Moderate",
+ *   "description": "...", "offset": 0, "duration": 86400, "every": 0,
+ *   "updates": [{"after": 3600, "severity": "Severe"}]}]}}
+ * </pre>
+ * An alert with {@code every} recurs with that period, each occurrence under its own id.
+ * {@code updates} override fields once the occurrence has been active for {@code after}
+ * seconds. A fixture read from a file is reloaded when the file changes, so editing it
+ * produces new, updated and expired alerts on the next poll.
+ */
+public class FixtureAlertSource implements AlertSource {
+
+    static final String CLASSPATH_FIXTURE = "/alerts-fixture.json";
+
+    private static final String ALL_REGIONS = "*";
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final long origin = System.currentTimeMillis();
+    private volatile Map<String, List<Map<String, Object>>> regions;
+    private volatile long loadedModified;
+
+    /**
+     * @param path fixture file, or null for the fixture bundled on the classpath
+     */
+    public FixtureAlertSource(ObjectMapper objectMapper, Path path) throws IOException {
+        this.objectMapper = objectMapper;
+        this.path = path;
+        if (path == null) {
+            try (InputStream in = FixtureAlertSource.class.getResourceAsStream(CLASSPATH_FIXTURE)) {
+                if (in == null) {
+                    throw new IOException("Missing " + CLASSPATH_FIXTURE + " on the classpath");
+                }
+                regions = parse(objectMapper.readValue(in, MAP_TYPE));
+            }
+        } else {
+            reloadIfModified();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> fetch(String zipCode, String countryCode) throws IOException {
+        if (path != null) {
+            reloadIfModified();
+        }
+
+        Map<String, List<Map<String, Object>>> current = regions;
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        addActive(alerts, current.get(ALL_REGIONS), now);
+        addActive(alerts, current.get(countryCode.toLowerCase() + ":" + zipCode), now);
+        return alerts;
+    }
+
+    @Override
+    public String type() {
+        return "fixture";
+    }
+
+    @Override
+    public String dataSource() {
+        return "Mock Data (fixture alert feed, no alerts API in free tier)";
+    }
+
+    @Override
+    public void close() {
+        // Nothing held open
+    }
+
+    private synchronized void reloadIfModified() throws IOException {
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        if (regions != null && modified == loadedModified) {
+            return;
+        }
+        regions = parse(objectMapper.readValue(path.toFile(), MAP_TYPE));
+        loadedModified = modified;
+    }
+
+    private void addActive(List<Map<String, Object>> alerts, List<Map<String, Object>> schedules, long now) {
+        if (schedules == null) {
+            return;
+        }
+
+        for (Map<String, Object> schedule : schedules) {
+            long offset = millis(schedule, "offset");
+            long duration = millis(schedule, "duration");
+            long every = millis(schedule, "every");
+
+            long start = origin + offset;
+            if (now < start) {
+                continue;
+            }
+            if (every > 0) {
+                start += (now - start) / every * every;
+            }
+            if (now >= start + duration) {
+                continue;
+            }
+
+            Map<String, Object> alert = new HashMap<>();
+            alert.put("id", schedule.get("id") + "-" + start / 1000);
+            alert.put("type", schedule.get("type"));
+            alert.put("severity", schedule.get("severity"));
+            alert.put("description", schedule.get("description"));
+            alert.put("start_time", start);
+            alert.put("end_time", start + duration);
+            applyUpdates(alert, schedule.get("updates"), now - start);
+            alerts.add(alert);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void applyUpdates(Map<String, Object> alert, Object updates, long activeFor) {
+        if (!(updates instanceof List)) {
+            return;
+        }
+
+        for (Object update : (List<Object>) updates) {
+            if (!(update instanceof Map)) {
+                continue;
+            }
+            Map<String, Object> fields = (Map<String, Object>) update;
+            if (activeFor < millis(fields, "after")) {
+                continue;
+            }
+            for (String field : List.of("type", "severity", "description")) {
+                if (fields.containsKey(field)) {
+                    alert.put(field, fields.get(field));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, List<Map<String, Object>>> parse(Map<String, Object> fixture) throws IOException {
+        Object regions = fixture.get("regions");
+        if (!(regions instanceof Map)) {
+            throw new IOException("Alert fixture needs a \"regions\" object");
+        }
+
+        Map<String, List<Map<String, Object>>> parsed = new HashMap<>();
+        for (Map.Entry<String, Object> region : ((Map<String, Object>) regions).entrySet()) {
+            if (!(region.getValue() instanceof List)) {
+                throw new IOException("Alert fixture region " + region.getKey() + " must be a list");
+            }
+            List<Map<String, Object>> schedules = new ArrayList<>();
+            for (Object schedule : (List<Object>) region.getValue()) {
+                if (!(schedule instanceof Map) || !(((Map<String, Object>) schedule).get("id") instanceof String)) {
+                    throw new IOException("Alert fixture entries in " + region.getKey() + " need an id");
+                }
+                schedules.add((Map<String, Object>) schedule);
+            }
+            parsed.put(region.getKey().toLowerCase(), schedules);
+        }
+        return parsed;
+    }
+
+    /**
+     * Reads a field given in seconds, as millis.
+     */
+    private static long millis(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).longValue() * 1000 : 0;
+    }
+}
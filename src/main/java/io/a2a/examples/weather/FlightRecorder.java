@@ -0,0 +1,314 @@
+package io.a2a.examples.weather;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import io.vertx.ext.web.RoutingContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on recorder of per-request phase timings, kept for latency investigations.
+ *
+ * Finished requests go into two fixed-size lock-free buffers: the slowest N seen so far,
+ * and a ring holding a random sample of the rest. The fast path for a typical request is a
+ * few {@code System.nanoTime()} calls and one volatile read; no locks are taken.
+ *
+ * Code on the request thread reports phases through the static {@link #phase} method,
+ * which is a no-op on threads without a request, such as the prefetcher or task workers.
+ * Phases nest: dispatch includes the cache and upstream phases of the skill it runs.
+ * Requests are ranked by their total time minus any long-poll wait.
+ */
+@ApplicationScoped
+public class FlightRecorder {
+
+    enum Phase {
+        DECODE, DISPATCH, CACHE, CONNECT, TTFB, READ, PARSE, SERIALIZE,
+        // Time parked in a long-poll; left out when ranking the slowest requests
+        WAIT;
+
+        final String label = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    @Inject
+    @ConfigProperty(name = "weather.flight-recorder.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "weather.flight-recorder.slowest", defaultValue = "50")
+    int slowestSize;
+
+    @Inject
+    @ConfigProperty(name = "weather.flight-recorder.sample-size", defaultValue = "200")
+    int sampleSize;
+
+    @Inject
+    @ConfigProperty(name = "weather.flight-recorder.sample-rate", defaultValue = "100")
+    int sampleRate;
+
+    @Inject
+    @ConfigProperty(name = "weather.flight-recorder.jfr.enabled", defaultValue = "false")
+    boolean jfrEnabled;
+
+    private AtomicReferenceArray<Trace> slowest;
+    private AtomicReferenceArray<Trace> samples;
+    private final AtomicLong sampleCursor = new AtomicLong();
+    // Requests at or below this are not slow enough to displace a kept one
+    private volatile long slowThresholdNanos = -1;
+    private final LongAdder recorded = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        slowest = new AtomicReferenceArray<>(Math.max(1, slowestSize));
+        samples = new AtomicReferenceArray<>(Math.max(1, sampleSize));
+    }
+
+    /**
+     * Starts a trace for a request, or returns null when recording is off.
+     */
+    Trace begin(String httpMethod, String path) {
+        if (!enabled) {
+            return null;
+        }
+        Trace trace = new Trace(httpMethod, path);
+        if (jfrEnabled) {
+            WeatherRequestEvent event = new WeatherRequestEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                trace.event = event;
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * Makes the request's trace current on this thread so nested code can report phases,
+     * and records the time since the request filter as the decode phase (routing plus
+     * reading and decoding the body). Returns false if the request is not traced.
+     */
+    static boolean enter(RoutingContext routingContext, String operation) {
+        return enter(routingContext != null ? routingContext.<Trace>get(FlightRecorderFilter.TRACE_PROPERTY) : null, operation);
+    }
+
+    /**
+     * Same as {@link #enter(RoutingContext, String)} for a trace started outside the
+     * request filter, such as one per WebSocket message.
+     */
+    static boolean enter(Trace trace, String operation) {
+        if (trace == null) {
+            return false;
+        }
+
+        trace.add(Phase.DECODE, System.nanoTime() - trace.startNanos);
+        trace.operation = operation;
+        CURRENT.set(trace);
+        return true;
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The trace current on this thread, for work that finishes the request on another
+     * thread; null if none.
+     */
+    static Trace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Adds the time since {@code startNanos} to a phase of the current request, if any.
+     */
+    static void phase(Phase phase, long startNanos) {
+        Trace trace = CURRENT.get();
+        if (trace != null) {
+            trace.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a finished WebSocket message. Lock-free; only the first call for a trace counts.
+     */
+    void commit(Trace trace) {
+        commit(trace, 0);
+    }
+
+    /**
+     * Records a finished HTTP request with its response status.
+     */
+    void commit(Trace trace, int status) {
+        if (!trace.committed.compareAndSet(false, true)) {
+            return;
+        }
+
+        trace.status = status;
+        trace.totalNanos = System.nanoTime() - trace.startNanos;
+        trace.busyNanos = trace.totalNanos - trace.nanos(Phase.WAIT);
+        recorded.increment();
+        if (trace.event != null) {
+            trace.event.record(trace);
+        }
+
+        if (trace.busyNanos > slowThresholdNanos && offerSlow(trace)) {
+            return;
+        }
+
+        if (sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            AtomicReferenceArray<Trace> ring = samples;
+            ring.set((int) (sampleCursor.getAndIncrement() % ring.length()), trace);
+        }
+    }
+
+    /**
+     * The slowest requests, slowest first, and the sampled ones, newest first.
+     */
+    public Map<String, Object> snapshot() {
+        List<Trace> slow = new ArrayList<>();
+        AtomicReferenceArray<Trace> slowRing = slowest;
+        for (int i = 0; i < slowRing.length(); i++) {
+            Trace trace = slowRing.get(i);
+            if (trace != null) {
+                slow.add(trace);
+            }
+        }
+        slow.sort(Comparator.comparingLong((Trace trace) -> trace.busyNanos).reversed());
+
+        List<Trace> sampled = new ArrayList<>();
+        AtomicReferenceArray<Trace> sampleRing = samples;
+        for (int i = 0; i < sampleRing.length(); i++) {
+            Trace trace = sampleRing.get(i);
+            if (trace != null) {
+                sampled.add(trace);
+            }
+        }
+        sampled.sort(Comparator.comparingLong((Trace trace) -> trace.startedAt).reversed());
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("jfr_events", jfrEnabled);
+        snapshot.put("recorded", recorded.sum());
+        snapshot.put("sample_rate", sampleRate);
+        snapshot.put("slowest", toJson(slow));
+        snapshot.put("sampled", toJson(sampled));
+        return snapshot;
+    }
+
+    private boolean offerSlow(Trace trace) {
+        AtomicReferenceArray<Trace> ring = slowest;
+        // Replace the fastest kept trace; retry a few times if another thread got there first
+        for (int attempt = 0; attempt < 4; attempt++) {
+            int minIndex = -1;
+            long min = Long.MAX_VALUE;
+            Trace minTrace = null;
+            for (int i = 0; i < ring.length(); i++) {
+                Trace kept = ring.get(i);
+                long nanos = kept != null ? kept.busyNanos : -1;
+                if (nanos < min) {
+                    min = nanos;
+                    minIndex = i;
+                    minTrace = kept;
+                }
+            }
+
+            if (minIndex < 0 || trace.busyNanos <= min) {
+                slowThresholdNanos = min;
+                return false;
+            }
+            if (ring.compareAndSet(minIndex, minTrace, trace)) {
+                slowThresholdNanos = minNanos(ring);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long minNanos(AtomicReferenceArray<Trace> ring) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < ring.length(); i++) {
+            Trace kept = ring.get(i);
+            min = Math.min(min, kept != null ? kept.busyNanos : -1);
+        }
+        return min;
+    }
+
+    private static List<Map<String, Object>> toJson(List<Trace> traces) {
+        List<Map<String, Object>> json = new ArrayList<>(traces.size());
+        for (Trace trace : traces) {
+            json.add(trace.toJson());
+        }
+        return json;
+    }
+
+    /**
+     * Timings of one request. Written by one thread at a time as the request moves from the
+     * I/O thread to a worker and back, and never changed after {@link #commit}.
+     */
+    static final class Trace {
+        final String httpMethod;
+        final String path;
+        final long startedAt = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        final long[] phaseNanos = new long[Phase.values().length];
+        final AtomicBoolean committed = new AtomicBoolean();
+        String operation;
+        // HTTP status; 0 for WebSocket messages
+        int status;
+        long totalNanos;
+        long busyNanos;
+        WeatherRequestEvent event;
+
+        Trace(String httpMethod, String path) {
+            this.httpMethod = httpMethod;
+            this.path = path;
+        }
+
+        void add(Phase phase, long nanos) {
+            phaseNanos[phase.ordinal()] += nanos;
+        }
+
+        long nanos(Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> phases = new LinkedHashMap<>();
+            for (Phase phase : Phase.values()) {
+                if (phaseNanos[phase.ordinal()] > 0) {
+                    phases.put(phase.label, millis(phaseNanos[phase.ordinal()]));
+                }
+            }
+
+            Map<String, Object> json = new HashMap<>();
+            json.put("timestamp", Instant.ofEpochMilli(startedAt).toString());
+            json.put("http_method", httpMethod);
+            json.put("path", path);
+            json.put("operation", operation);
+            if (status > 0) {
+                json.put("status", status);
+            }
+            json.put("total_ms", millis(totalNanos));
+            json.put("phases_ms", phases);
+            return json;
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+}
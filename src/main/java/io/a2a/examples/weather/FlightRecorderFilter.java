@@ -0,0 +1,66 @@
+package io.a2a.examples.weather;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+import java.io.IOException;
+
+/**
+ * Starts a {@link FlightRecorder} trace when a request arrives and commits it once the
+ * response body is written, or when the response ends for requests that never write one
+ * through here, such as unhandled exceptions. Runs outside {@link ResponseCompression}, so
+ * the serialize phase includes compression.
+ */
+@Provider
+@Priority(Priorities.HEADER_DECORATOR)
+public class FlightRecorderFilter implements ContainerRequestFilter, WriterInterceptor {
+
+    // Also kept on the Vert.x context so resources can reach the trace
+    static final String TRACE_PROPERTY = FlightRecorder.Trace.class.getName();
+
+    @Inject
+    FlightRecorder flightRecorder;
+
+    @Inject
+    RoutingContext routingContext;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        FlightRecorder.Trace trace = flightRecorder.begin(requestContext.getMethod(),
+            requestContext.getUriInfo().getPath());
+        if (trace != null) {
+            requestContext.setProperty(TRACE_PROPERTY, trace);
+            routingContext.put(TRACE_PROPERTY, trace);
+            // The injected context is a request-scoped proxy; keep the response itself
+            HttpServerResponse response = routingContext.response();
+            routingContext.addEndHandler(ended -> flightRecorder.commit(trace, response.getStatusCode()));
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        FlightRecorder.Trace trace = (FlightRecorder.Trace) context.getProperty(TRACE_PROPERTY);
+        if (trace == null) {
+            context.proceed();
+            return;
+        }
+
+        // Streamed responses write several times; only the first one counts
+        context.removeProperty(TRACE_PROPERTY);
+        long start = System.nanoTime();
+        try {
+            context.proceed();
+        } finally {
+            trace.add(FlightRecorder.Phase.SERIALIZE, System.nanoTime() - start);
+            flightRecorder.commit(trace, routingContext.response().getStatusCode());
+        }
+    }
+}
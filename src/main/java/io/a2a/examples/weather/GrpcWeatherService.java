@@ -0,0 +1,238 @@
+package io.a2a.examples.weather;
+
+import io.a2a.examples.weather.grpc.Alert;
+import io.a2a.examples.weather.grpc.AlertsRequest;
+import io.a2a.examples.weather.grpc.CurrentWeather;
+import io.a2a.examples.weather.grpc.ForecastEntry;
+import io.a2a.examples.weather.grpc.HistoryEntry;
+import io.a2a.examples.weather.grpc.HistoryRequest;
+import io.a2a.examples.weather.grpc.LocationRequest;
+import io.a2a.examples.weather.grpc.WeatherAgent;
+import io.a2a.examples.weather.grpc.WeatherAlerts;
+import io.a2a.examples.weather.grpc.WeatherForecast;
+import io.a2a.examples.weather.grpc.WeatherHistory;
+import io.grpc.Status;
+import io.quarkus.grpc.GrpcService;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * gRPC transport for the weather skills, defined in {@code weather.proto}. Requests are
+ * turned into the same params the JSON-RPC endpoint takes and run through
+ * {@link WeatherSkills}, so both transports share validation, units and caching.
+ */
+@GrpcService
+public class GrpcWeatherService implements WeatherAgent {
+
+    @Inject
+    WeatherSkills weatherSkills;
+
+    @Override
+    @Blocking
+    public Uni<CurrentWeather> getCurrentWeather(LocationRequest request) {
+        return Uni.createFrom().item(() -> toCurrentWeather(
+            check(weatherSkills.getCurrentWeather(params(request)))));
+    }
+
+    @Override
+    @Blocking
+    public Uni<WeatherForecast> getWeatherForecast(LocationRequest request) {
+        return Uni.createFrom().item(() -> toWeatherForecast(
+            check(weatherSkills.getWeatherForecast(params(request)))));
+    }
+
+    @Override
+    @Blocking
+    public Uni<WeatherAlerts> getWeatherAlerts(AlertsRequest request) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("zip_code", request.getZipCode());
+        params.put("country_code", request.getCountryCode());
+        if (!request.getSince().isEmpty()) {
+            params.put("since", request.getSince());
+        }
+        if (request.getWait() > 0) {
+            params.put("wait", request.getWait());
+        }
+        // The worker is released while a long-poll waits
+        return Uni.createFrom().completionStage(() -> weatherSkills.getWeatherAlertsAsync(params))
+            .map(alerts -> toWeatherAlerts(check(alerts)));
+    }
+
+    @Override
+    @Blocking
+    public Uni<WeatherHistory> getWeatherHistory(HistoryRequest request) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("zip_code", request.getZipCode());
+        params.put("country_code", request.getCountryCode());
+        params.put("units", request.getUnits());
+        if (!request.getStartDate().isEmpty()) {
+            params.put("start_date", request.getStartDate());
+        }
+        if (!request.getEndDate().isEmpty()) {
+            params.put("end_date", request.getEndDate());
+        }
+        return Uni.createFrom().item(() -> toWeatherHistory(check(weatherSkills.getWeatherHistory(params))));
+    }
+
+    private static Map<String, Object> params(LocationRequest request) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("zip_code", request.getZipCode());
+        params.put("country_code", request.getCountryCode());
+        params.put("units", request.getUnits());
+        return params;
+    }
+
+    /**
+     * Turns a skill error result into a gRPC status, keeping the error code in the message.
+     */
+    private static Map<String, Object> check(Map<String, Object> result) {
+        if (!result.containsKey("error")) {
+            return result;
+        }
+
+        Status status = "WEATHER_API_ERROR".equals(result.get("error_code"))
+            ? Status.UNAVAILABLE
+            : Status.INVALID_ARGUMENT;
+        throw status.withDescription(result.get("error_code") + ": " + result.get("error")).asRuntimeException();
+    }
+
+    private static CurrentWeather toCurrentWeather(Map<String, Object> result) {
+        CurrentWeather.Builder builder = CurrentWeather.newBuilder()
+            .setLocation(string(result, "location"))
+            .setZipCode(string(result, "zip_code"))
+            .setTemperature(decimal(result, "temperature"))
+            .setFeelsLike(decimal(result, "feels_like"))
+            .setHumidity((int) integer(result, "humidity"))
+            .setPressure(decimal(result, "pressure"))
+            .setWindSpeed(decimal(result, "wind_speed"))
+            .setWindDirection((int) integer(result, "wind_direction"))
+            .setCondition(string(result, "condition"))
+            .setDescription(string(result, "description"))
+            .setVisibility((int) integer(result, "visibility"))
+            .setCloudiness((int) integer(result, "cloudiness"))
+            .setSunrise(integer(result, "sunrise"))
+            .setSunset(integer(result, "sunset"))
+            .setDataSource(string(result, "data_source"))
+            .setTimestamp(integer(result, "timestamp"));
+        if (result.get("units") instanceof Map) {
+            builder.setUnits(toUnits(map(result.get("units"))));
+        }
+        return builder.build();
+    }
+
+    private static WeatherForecast toWeatherForecast(Map<String, Object> result) {
+        WeatherForecast.Builder builder = WeatherForecast.newBuilder()
+            .setLocation(string(result, "location"))
+            .setZipCode(string(result, "zip_code"))
+            .setForecastDays((int) integer(result, "forecast_days"))
+            .setDataSource(string(result, "data_source"))
+            .setTimestamp(integer(result, "timestamp"));
+        for (Map<String, Object> entry : list(result.get("forecasts"))) {
+            builder.addForecasts(ForecastEntry.newBuilder()
+                .setDateTime(string(entry, "date_time"))
+                .setTemperature(decimal(entry, "temperature"))
+                .setFeelsLike(decimal(entry, "feels_like"))
+                .setHumidity((int) integer(entry, "humidity"))
+                .setCondition(string(entry, "condition"))
+                .setDescription(string(entry, "description"))
+                .setWindSpeed(decimal(entry, "wind_speed"))
+                .setPrecipitationChance(decimal(entry, "precipitation_chance")));
+        }
+        if (result.get("units") instanceof Map) {
+            builder.setUnits(toUnits(map(result.get("units"))));
+        }
+        return builder.build();
+    }
+
+    private static WeatherAlerts toWeatherAlerts(Map<String, Object> result) {
+        WeatherAlerts.Builder builder = WeatherAlerts.newBuilder()
+            .setLocation(string(result, "location"))
+            .setZipCode(string(result, "zip_code"))
+            .setCountryCode(string(result, "country_code"))
+            .setAlertCount((int) integer(result, "alert_count"))
+            .setDataSource(string(result, "data_source"))
+            .setTimestamp(integer(result, "timestamp"))
+            .setCursor(string(result, "cursor"))
+            .setFull(Boolean.TRUE.equals(result.get("full")));
+        for (Map<String, Object> alert : list(result.get("alerts"))) {
+            builder.addAlerts(Alert.newBuilder()
+                .setId(string(alert, "id"))
+                .setChange(string(alert, "change"))
+                .setType(string(alert, "type"))
+                .setSeverity(string(alert, "severity"))
+                .setDescription(string(alert, "description"))
+                .setStartTime(integer(alert, "start_time"))
+                .setEndTime(integer(alert, "end_time")));
+        }
+        return builder.build();
+    }
+
+    private static WeatherHistory toWeatherHistory(Map<String, Object> result) {
+        WeatherHistory.Builder builder = WeatherHistory.newBuilder()
+            .setLocation(string(result, "location"))
+            .setZipCode(string(result, "zip_code"))
+            .setCountryCode(string(result, "country_code"))
+            .setStartDate(string(result, "start_date"))
+            .setEndDate(string(result, "end_date"))
+            .setDataPoints((int) integer(result, "data_points"))
+            .setDataSource(string(result, "data_source"))
+            .setTimestamp(integer(result, "timestamp"));
+        for (Map<String, Object> entry : list(result.get("historical_data"))) {
+            builder.addHistoricalData(HistoryEntry.newBuilder()
+                .setDate(string(entry, "date"))
+                .setHighTemperature(decimal(entry, "high_temperature"))
+                .setLowTemperature(decimal(entry, "low_temperature"))
+                .setAverageTemperature(decimal(entry, "average_temperature"))
+                .setHumidity((int) integer(entry, "humidity"))
+                .setPrecipitation(decimal(entry, "precipitation"))
+                .setCondition(string(entry, "condition")));
+        }
+        if (result.get("units") instanceof Map) {
+            builder.setUnits(toUnits(map(result.get("units"))));
+        }
+        return builder.build();
+    }
+
+    private static io.a2a.examples.weather.grpc.Units toUnits(Map<String, Object> units) {
+        return io.a2a.examples.weather.grpc.Units.newBuilder()
+            .setSystem(string(units, "system"))
+            .setTemperature(string(units, "temperature"))
+            .setWindSpeed(string(units, "wind_speed"))
+            .setPrecipitation(string(units, "precipitation"))
+            .build();
+    }
+
+    private static String string(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value != null ? value.toString() : "";
+    }
+
+    private static double decimal(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static long integer(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        if (value instanceof Double || value instanceof Float) {
+            // Converted units turn whole numbers into doubles
+            return Math.round(((Number) value).doubleValue());
+        }
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(Object value) {
+        return value instanceof List ? (List<Map<String, Object>>) value : List.of();
+    }
+}
@@ -0,0 +1,108 @@
+package io.a2a.examples.weather;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate top-K counter for a skewed stream of keys, in fixed memory.
+ *
+ * Counts go into a count-min sketch updated with lock-free increments. Keys whose estimate
+ * beats the weakest tracked candidate are kept in a small candidate map, which is trimmed
+ * back to K under a lock only when it overflows. {@link #decay()} halves every count so the
+ * result follows recent traffic rather than all-time totals.
+ */
+final class HeavyHitters {
+
+    private static final int DEPTH = 4;
+    // Odd multipliers to derive independent row hashes from one hashCode
+    private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+
+    private final int capacity;
+    private final int width;
+    private final AtomicLongArray counts;
+    private final ConcurrentHashMap<String, Long> candidates = new ConcurrentHashMap<>();
+    private volatile long admissionThreshold;
+
+    HeavyHitters(int capacity, int width) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        // Power of two so the row index is a mask
+        this.width = Integer.highestOneBit(Math.max(64, width - 1) << 1);
+        this.counts = new AtomicLongArray(DEPTH * this.width);
+    }
+
+    void record(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.incrementAndGet(index(row, hash)));
+        }
+
+        if (estimate >= admissionThreshold || candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            if (candidates.size() > capacity * 2) {
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} keys with their estimated counts, most frequent first.
+     */
+    Map<String, Long> top(int limit) {
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(candidates.entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : sorted) {
+            if (top.size() >= Math.min(limit, capacity)) {
+                break;
+            }
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    /**
+     * Halves all counts. Concurrent increments may be halved or not, which only blurs the
+     * estimates slightly.
+     */
+    synchronized void decay() {
+        for (int i = 0; i < counts.length(); i++) {
+            long value = counts.get(i);
+            if (value > 0) {
+                counts.getAndAdd(i, -(value - value / 2));
+            }
+        }
+        candidates.replaceAll((key, count) -> count / 2);
+        candidates.values().removeIf(count -> count == 0);
+        admissionThreshold /= 2;
+    }
+
+    private synchronized void trim() {
+        if (candidates.size() <= capacity) {
+            return;
+        }
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(candidates.entrySet());
+        sorted.sort(Map.Entry.comparingByValue(Comparator.reverseOrder()));
+        for (Map.Entry<String, Long> entry : sorted.subList(capacity, sorted.size())) {
+            candidates.remove(entry.getKey(), entry.getValue());
+        }
+        // Newcomers must beat the weakest key kept
+        admissionThreshold = sorted.get(capacity - 1).getValue() + 1;
+    }
+
+    private int index(int row, int hash) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+}
@@ -0,0 +1,30 @@
+package io.a2a.examples.weather;
+
+/**
+ * A JSON-RPC error to be returned in the {@code error} member of a response.
+ */
+public class JsonRpcException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int PARSE_ERROR = -32700;
+    public static final int INVALID_REQUEST = -32600;
+    public static final int METHOD_NOT_FOUND = -32601;
+    public static final int INVALID_PARAMS = -32602;
+    public static final int INTERNAL_ERROR = -32603;
+
+    // A2A-specific error codes
+    public static final int TASK_NOT_FOUND = -32001;
+    public static final int TASK_NOT_CANCELABLE = -32002;
+
+    private final int code;
+
+    public JsonRpcException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
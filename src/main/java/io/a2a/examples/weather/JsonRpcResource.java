@@ -7,10 +7,19 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.inject.Inject;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.ext.web.RoutingContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 @Path("/jsonrpc")
 public class JsonRpcResource {
@@ -18,17 +27,126 @@ public class JsonRpcResource {
     @Inject
     WeatherService weatherService;
 
+    @Inject
+    TaskManager taskManager;
+
+    @Inject
+    WeatherCache weatherCache;
+
+    @Inject
+    AlertStore alertStore;
+
+    @Inject
+    WeatherSkills weatherSkills;
+
     @Inject
     UriInfo uriInfo;
 
+    @Inject
+    RoutingContext routingContext;
+
+    @Inject
+    @ConfigProperty(name = "weather.grpc.advertise", defaultValue = "auto")
+    String grpcAdvertise;
+
+    /**
+     * Runs on a worker thread, which is released while a {@code get_weather_alerts}
+     * long-poll waits; the response is written when the wait ends.
+     */
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
-    public Map<String, Object> handleJsonRpc(Map<String, Object> request) {
+    @Blocking
+    @Consumes({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
+    @Produces({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
+    public Uni<Map<String, Object>> handleJsonRpc(Map<String, Object> request) {
+        if (!FlightRecorder.enter(routingContext, String.valueOf(request.get("method")))) {
+            return Uni.createFrom().completionStage(respond(request));
+        }
+
+        try {
+            return Uni.createFrom().completionStage(respond(request));
+        } finally {
+            FlightRecorder.exit();
+        }
+    }
+
+    /**
+     * Dispatches one JSON-RPC request and builds its response, which completes later for a
+     * long-poll. Shared by this endpoint and {@link JsonRpcWebSocket}, so both behave the same.
+     */
+    CompletionStage<Map<String, Object>> respond(Map<String, Object> request) {
+        Object id = request.get("id");
+        if (!(request.get("method") instanceof String)) {
+            return CompletableFuture.completedFuture(
+                getErrorResponse(JsonRpcException.INVALID_REQUEST, "Invalid request: method must be a string", id));
+        }
+
         String method = (String) request.get("method");
         Object params = request.get("params");
+
+        Object result;
+        long dispatchStart = System.nanoTime();
+        try {
+            result = dispatch(method, params);
+        } catch (JsonRpcException e) {
+            return CompletableFuture.completedFuture(getErrorResponse(e.getCode(), e.getMessage(), id));
+        } finally {
+            FlightRecorder.phase(FlightRecorder.Phase.DISPATCH, dispatchStart);
+        }
+
+        if (result == null) {
+            return CompletableFuture.completedFuture(
+                getErrorResponse(JsonRpcException.METHOD_NOT_FOUND, "Method not found: " + method, id));
+        }
+
+        if (result instanceof CompletionStage) {
+            return ((CompletionStage<?>) result).thenApply(completed -> getResultResponse(completed, id));
+        }
+        return CompletableFuture.completedFuture(getResultResponse(result, id));
+    }
+
+    /**
+     * Streaming variant of the endpoint, selected with {@code Accept: text/event-stream}.
+     * {@code message/stream} and {@code tasks/resubscribe} send a JSON-RPC response per task
+     * event until the task finishes; any other method yields a single event.
+     */
+    @POST
+    @Blocking
+    @Consumes({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<Map<String, Object>> handleJsonRpcStream(Map<String, Object> request) {
+        Object method = request.get("method");
+        Object params = request.get("params");
         Object id = request.get("id");
 
+        WeatherTask task;
+        try {
+            if ("message/stream".equals(method)) {
+                task = taskManager.create(params);
+            } else if ("tasks/resubscribe".equals(method)) {
+                task = taskManager.lookup(params);
+            } else {
+                return handleJsonRpc(request).toMulti();
+            }
+        } catch (JsonRpcException e) {
+            return Multi.createFrom().item(getErrorResponse(e.getCode(), e.getMessage(), id));
+        }
+
+        return Multi.createFrom().emitter(emitter -> {
+            Consumer<Map<String, Object>> listener = event -> {
+                emitter.emit(getResultResponse(event, id));
+                if (Boolean.TRUE.equals(event.get("final"))) {
+                    emitter.complete();
+                }
+            };
+            emitter.onTermination(() -> task.unsubscribe(listener));
+            if (task.subscribe(listener) && "message/stream".equals(method)) {
+                taskManager.start(task, weatherSkills::execute);
+            }
+        });
+    }
+
+    private Object dispatch(String method, Object params) {
         Object result;
         switch (method) {
             // Standard A2A Protocol Methods
@@ -39,9 +157,9 @@ public class JsonRpcResource {
                     "version", "1.0.0",
                     "protocolVersion", "0.3.0",
                     "capabilities", Map.of(
-                        "streaming", false,
+                        "streaming", true,
                         "pushNotifications", false,
-                        "stateTransitionHistory", false
+                        "stateTransitionHistory", true
                     ),
                     "skills", List.of(
                         Map.of("id", "get_current_weather", "name", "Current Weather", "description", "Get current weather conditions by ZIP code"),
@@ -57,16 +175,22 @@ public class JsonRpcResource {
                     "description", "An A2A agent that provides weather information by ZIP code using OpenWeatherMap API with mock data fallback",
                     "version", "1.0.0",
                     "url", getBaseUrl(),
-                    "protocolVersion", "0.3.0"
+                    "protocolVersion", "0.3.0",
+                    "preferredTransport", "JSONRPC",
+                    "additionalInterfaces", AgentCardResource.interfaces(getBaseUrl(),
+                        AgentCardResource.grpcReachable(grpcAdvertise, getBaseUrl()))
                 );
                 break;
             case "agent.getCapabilities":
                 result = Map.of(
-                    "streaming", false,
+                    "streaming", true,
                     "pushNotifications", false,
-                    "stateTransitionHistory", false,
-                    "supportedTransports", List.of("JSONRPC"),
-                    "supportedProtocols", List.of("A2A-0.3.0")
+                    "stateTransitionHistory", true,
+                    "supportedTransports", AgentCardResource.supportedTransports(
+                        AgentCardResource.grpcReachable(grpcAdvertise, getBaseUrl())),
+                    "supportedProtocols", List.of("A2A-0.3.0"),
+                    "supportedContentTypes", BinaryJsonProvider.SUPPORTED_CONTENT_TYPES,
+                    "supportedContentEncodings", ResponseCompression.supportedEncodings()
                 );
                 break;
             case "agent.getSkills":
@@ -76,21 +200,21 @@ public class JsonRpcResource {
                         "name", "Current Weather",
                         "description", "Get current weather conditions including temperature, humidity, wind, and conditions by ZIP code",
                         "tags", List.of("weather", "current", "temperature", "conditions"),
-                        "examples", List.of("get_current_weather zip_code='10001' country_code='us'")
+                        "examples", List.of("get_current_weather zip_code='10001' country_code='us'", "get_current_weather zip_code='10001' country_code='us' units='metric'")
                     ),
                     Map.of(
                         "id", "get_weather_forecast",
                         "name", "Weather Forecast",
                         "description", "Get 5-day weather forecast with detailed daily conditions and precipitation chances",
                         "tags", List.of("weather", "forecast", "5-day", "precipitation"),
-                        "examples", List.of("get_weather_forecast zip_code='10001' country_code='us'")
+                        "examples", List.of("get_weather_forecast zip_code='10001' country_code='us'", "get_weather_forecast zip_code='10001' country_code='us' units='metric'")
                     ),
                     Map.of(
                         "id", "get_weather_alerts",
                         "name", "Weather Alerts",
-                        "description", "Get weather alerts, warnings, and advisories for a specific area",
+                        "description", "Get weather alerts, warnings, and advisories for a specific area, or only the changes since a cursor",
                         "tags", List.of("weather", "alerts", "warnings", "advisories"),
-                        "examples", List.of("get_weather_alerts zip_code='10001' country_code='us'")
+                        "examples", List.of("get_weather_alerts zip_code='10001' country_code='us'", "get_weather_alerts zip_code='10001' since='<cursor>' wait=30")
                     ),
                     Map.of(
                         "id", "get_weather_history",
@@ -115,239 +239,61 @@ public class JsonRpcResource {
                     "uptime", "running",
                     "lastHealthCheck", System.currentTimeMillis(),
                     "activeConnections", 0,
-                    "weatherMode", weatherService != null && weatherService.isConfigured() ? "OpenWeatherMap" : "MOCK"
+                    "weatherMode", weatherService != null && weatherService.isConfigured() ? "OpenWeatherMap" : "MOCK",
+                    "cache", weatherCache != null ? weatherCache.stats() : Map.of(),
+                    "alerts", alertStore != null ? alertStore.stats() : Map.of()
                 );
                 break;
             // Weather Methods
             case "get_current_weather":
-                result = getCurrentWeather(params);
+                result = weatherSkills.getCurrentWeather(params);
                 break;
             case "get_weather_forecast":
-                result = getWeatherForecast(params);
+                result = weatherSkills.getWeatherForecast(params);
                 break;
             case "get_weather_alerts":
-                result = getWeatherAlerts(params);
+                // A stage, completed when a long-poll ends
+                result = weatherSkills.getWeatherAlertsAsync(params);
                 break;
             case "get_weather_history":
-                result = getWeatherHistory(params);
+                result = weatherSkills.getWeatherHistory(params);
+                break;
+            // A2A Task Methods ("tasks/send" is the pre-0.2 name of "message/send")
+            case "message/send":
+            case "tasks/send":
+                result = taskManager.send(params, weatherSkills::execute);
+                break;
+            case "message/stream":
+                // Without an event stream to write to, behave like a non-blocking send
+                result = taskManager.send(params, weatherSkills::execute);
+                break;
+            case "tasks/get":
+            case "tasks/resubscribe":
+                result = taskManager.get(params);
+                break;
+            case "tasks/cancel":
+                result = taskManager.cancel(params);
                 break;
             default:
-                return Map.of(
-                    "jsonrpc", "2.0",
-                    "error", Map.of(
-                        "code", -32601,
-                        "message", "Method not found: " + method
-                    ),
-                    "id", id
-                );
-        }
-
-        return Map.of(
-            "jsonrpc", "2.0",
-            "result", result,
-            "id", id
-        );
-    }
-
-    private Map<String, Object> getCurrentWeather(Object params) {
-        if (!(params instanceof Map)) {
-            return Map.of(
-                "error", "Invalid input: params must be an object",
-                "error_code", "INVALID_INPUT"
-            );
-        }
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> paramMap = (Map<String, Object>) params;
-        String zipCode = (String) paramMap.get("zip_code");
-        String countryCode = (String) paramMap.get("country_code");
-
-        if (zipCode == null || zipCode.trim().isEmpty()) {
-            return Map.of(
-                "error", "Invalid input: zip_code is required",
-                "error_code", "MISSING_ZIP_CODE",
-                "suggestion", "Please provide a valid ZIP code (e.g., '10001')"
-            );
-        }
-
-        if (countryCode == null || countryCode.trim().isEmpty()) {
-            countryCode = "us"; // Default to US
-        }
-
-        try {
-            return weatherService.getCurrentWeather(zipCode, countryCode);
-        } catch (Exception e) {
-            return Map.of(
-                "error", "Failed to retrieve weather data: " + e.getMessage(),
-                "error_code", "WEATHER_API_ERROR"
-            );
+                return null;
         }
+        return result;
     }
 
-    private Map<String, Object> getWeatherForecast(Object params) {
-        if (!(params instanceof Map)) {
-            return Map.of("error", "Invalid input: params must be an object");
-        }
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> paramMap = (Map<String, Object>) params;
-        String zipCode = (String) paramMap.get("zip_code");
-        String countryCode = (String) paramMap.get("country_code");
-
-        if (zipCode == null || zipCode.trim().isEmpty()) {
-            return Map.of(
-                "error", "Invalid input: zip_code is required",
-                "error_code", "MISSING_ZIP_CODE"
-            );
-        }
-
-        if (countryCode == null || countryCode.trim().isEmpty()) {
-            countryCode = "us";
-        }
-
-        try {
-            return weatherService.getWeatherForecast(zipCode, countryCode);
-        } catch (Exception e) {
-            return Map.of(
-                "error", "Failed to retrieve weather forecast: " + e.getMessage(),
-                "error_code", "WEATHER_API_ERROR"
-            );
-        }
-    }
-
-    private Map<String, Object> getWeatherAlerts(Object params) {
-        if (!(params instanceof Map)) {
-            return Map.of("error", "Invalid input: params must be an object");
-        }
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> paramMap = (Map<String, Object>) params;
-        String zipCode = (String) paramMap.get("zip_code");
-        String countryCode = (String) paramMap.get("country_code");
-
-        if (zipCode == null || zipCode.trim().isEmpty()) {
-            return Map.of(
-                "error", "Invalid input: zip_code is required",
-                "error_code", "MISSING_ZIP_CODE"
-            );
-        }
-
-        if (countryCode == null || countryCode.trim().isEmpty()) {
-            countryCode = "us";
-        }
-
-        // Mock weather alerts (OpenWeatherMap doesn't have a free alerts API)
-        return getMockWeatherAlerts(zipCode, countryCode);
-    }
-
-    private Map<String, Object> getWeatherHistory(Object params) {
-        if (!(params instanceof Map)) {
-            return Map.of("error", "Invalid input: params must be an object");
-        }
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> paramMap = (Map<String, Object>) params;
-        String zipCode = (String) paramMap.get("zip_code");
-        String countryCode = (String) paramMap.get("country_code");
-        String startDate = (String) paramMap.get("start_date");
-        String endDate = (String) paramMap.get("end_date");
-
-        if (zipCode == null || zipCode.trim().isEmpty()) {
-            return Map.of(
-                "error", "Invalid input: zip_code is required",
-                "error_code", "MISSING_ZIP_CODE"
-            );
-        }
-
-        if (countryCode == null || countryCode.trim().isEmpty()) {
-            countryCode = "us";
-        }
-
-        // Mock weather history (OpenWeatherMap historical data requires paid plan)
-        return getMockWeatherHistory(zipCode, countryCode, startDate, endDate);
-    }
-
-    private Map<String, Object> getMockWeatherAlerts(String zipCode, String countryCode) {
-        Map<String, Object> alerts = new HashMap<>();
-        List<Map<String, Object>> alertList = new ArrayList<>();
-        
-        // Mock some weather alerts
-        Map<String, Object> alert1 = new HashMap<>();
-        alert1.put("type", "Heat Advisory");
-        alert1.put("severity", "Moderate");
-        alert1.put("description", "High temperatures expected. Stay hydrated and avoid prolonged outdoor activities.");
-        alert1.put("start_time", System.currentTimeMillis());
-        alert1.put("end_time", System.currentTimeMillis() + 86400000); // 24 hours
-        alertList.add(alert1);
-        
-        Map<String, Object> alert2 = new HashMap<>();
-        alert2.put("type", "Air Quality Alert");
-        alert2.put("severity", "Low");
-        alert2.put("description", "Moderate air quality. Sensitive groups should limit outdoor activities.");
-        alert2.put("start_time", System.currentTimeMillis());
-        alert2.put("end_time", System.currentTimeMillis() + 43200000); // 12 hours
-        alertList.add(alert2);
-        
-        alerts.put("location", getMockLocation(zipCode));
-        alerts.put("zip_code", zipCode);
-        alerts.put("country_code", countryCode);
-        alerts.put("alerts", alertList);
-        alerts.put("alert_count", alertList.size());
-        alerts.put("data_source", "Mock Data (Weather alerts API not available in free tier)");
-        alerts.put("timestamp", System.currentTimeMillis());
-        
-        return alerts;
-    }
-
-    private Map<String, Object> getMockWeatherHistory(String zipCode, String countryCode, String startDate, String endDate) {
-        Map<String, Object> history = new HashMap<>();
-        List<Map<String, Object>> historyList = new ArrayList<>();
-        
-        // Generate mock historical data for the last 7 days
-        long currentTime = System.currentTimeMillis();
-        for (int i = 6; i >= 0; i--) {
-            Map<String, Object> dayHistory = new HashMap<>();
-            long dayTime = currentTime - (i * 86400000); // i days ago
-            
-            dayHistory.put("date", new java.text.SimpleDateFormat("yyyy-MM-dd").format(new java.util.Date(dayTime)));
-            dayHistory.put("high_temperature", 65 + (int)(Math.random() * 20)); // 65-85°F
-            dayHistory.put("low_temperature", 45 + (int)(Math.random() * 15)); // 45-60°F
-            dayHistory.put("average_temperature", 55 + (int)(Math.random() * 15)); // 55-70°F
-            dayHistory.put("humidity", 40 + (int)(Math.random() * 40)); // 40-80%
-            dayHistory.put("precipitation", Math.random() * 0.5); // 0-0.5 inches
-            dayHistory.put("condition", new String[]{"Clear", "Partly Cloudy", "Cloudy", "Rain"}[new java.util.Random().nextInt(4)]);
-            historyList.add(dayHistory);
-        }
-        
-        history.put("location", getMockLocation(zipCode));
-        history.put("zip_code", zipCode);
-        history.put("country_code", countryCode);
-        history.put("start_date", startDate != null ? startDate : "7 days ago");
-        history.put("end_date", endDate != null ? endDate : "today");
-        history.put("historical_data", historyList);
-        history.put("data_points", historyList.size());
-        history.put("data_source", "Mock Data (Historical weather API requires paid plan)");
-        history.put("timestamp", System.currentTimeMillis());
-        
-        return history;
+    Map<String, Object> getResultResponse(Object result, Object id) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("result", result);
+        response.put("id", id);
+        return response;
     }
 
-    private String getMockLocation(String zipCode) {
-        // Simple mock location mapping for common ZIP codes
-        Map<String, String> zipToLocation = Map.of(
-            "10001", "New York, NY",
-            "90210", "Beverly Hills, CA", 
-            "60601", "Chicago, IL",
-            "33101", "Miami, FL",
-            "98101", "Seattle, WA",
-            "75201", "Dallas, TX",
-            "30301", "Atlanta, GA",
-            "02101", "Boston, MA",
-            "85001", "Phoenix, AZ",
-            "80201", "Denver, CO"
-        );
-        
-        return zipToLocation.getOrDefault(zipCode, "Unknown City, US");
+    Map<String, Object> getErrorResponse(int code, String message, Object id) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("error", Map.of("code", code, "message", message));
+        response.put("id", id);
+        return response;
     }
 
     private String getBaseUrl() {
@@ -0,0 +1,457 @@
+package io.a2a.examples.weather;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JSON-RPC over a long-lived WebSocket at {@code /jsonrpc/ws}, for agents that make many
+ * calls and would otherwise pay for a new HTTP request each time.
+ *
+ * Each text message is one JSON-RPC request, run on a worker thread through the same
+ * {@link JsonRpcResource#respond} as {@code POST /jsonrpc}. Requests run concurrently and
+ * responses come back as they finish, matched by {@code id}; requests without an id are
+ * notifications and get no response. Two extra methods, {@code weather/watch} and
+ * {@code weather/unwatch}, subscribe to a location's alerts, which then arrive as
+ * {@code weather/alerts} notifications carrying the changes since the previous one.
+ *
+ * Reading from a connection pauses while it has {@code weather.ws.max-in-flight} requests
+ * running or its write queue is full, so a fast client is slowed down by TCP instead of
+ * piling up work. Connections without messages, requests or watches are closed after the
+ * idle timeout; pings keep proxies from dropping quiet connections and detect dead peers.
+ */
+@ApplicationScoped
+public class JsonRpcWebSocket {
+
+    private static final Logger LOG = Logger.getLogger(JsonRpcWebSocket.class);
+
+    static final String PATH = "/jsonrpc/ws";
+
+    static final String WATCH = "weather/watch";
+    static final String UNWATCH = "weather/unwatch";
+    static final String ALERTS_NOTIFICATION = "weather/alerts";
+
+    @Inject
+    JsonRpcResource jsonRpc;
+
+    @Inject
+    WeatherSkills weatherSkills;
+
+    @Inject
+    AlertStore alertStore;
+
+    @Inject
+    FlightRecorder flightRecorder;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    @ConfigProperty(name = "weather.ws.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "weather.ws.max-connections", defaultValue = "1000")
+    int maxConnections;
+
+    @Inject
+    @ConfigProperty(name = "weather.ws.max-in-flight", defaultValue = "32")
+    int maxInFlight;
+
+    @Inject
+    @ConfigProperty(name = "weather.ws.max-queued-bytes", defaultValue = "1048576")
+    int maxQueuedBytes;
+
+    @Inject
+    @ConfigProperty(name = "weather.ws.max-watches", defaultValue = "20")
+    int maxWatches;
+
+    @Inject
+    @ConfigProperty(name = "weather.ws.idle-timeout", defaultValue = "300")
+    long idleTimeoutSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.ws.ping-interval", defaultValue = "25")
+    long pingIntervalSeconds;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+
+    void registerRoute(@Observes Router router) {
+        if (enabled) {
+            router.route(PATH).handler(this::upgrade);
+        }
+    }
+
+    /**
+     * Closes every open connection with 1012 (service restart), e.g. before a CRaC
+     * checkpoint, so no session timers or watches are captured mid-work. Clients reconnect.
+     */
+    void closeAll() {
+        for (Session session : sessions) {
+            session.socket.close((short) 1012, "Service restarting");
+            session.close();
+        }
+    }
+
+    private void upgrade(RoutingContext routingContext) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            routingContext.response().setStatusCode(503).putHeader("Retry-After", "5").end();
+            return;
+        }
+
+        routingContext.request().toWebSocket().onComplete(result -> {
+            if (result.failed()) {
+                connections.decrementAndGet();
+                if (!routingContext.response().ended()) {
+                    routingContext.response().setStatusCode(400).end("Expected a WebSocket upgrade");
+                }
+                return;
+            }
+            new Session(result.result()).open();
+        });
+    }
+
+    /**
+     * One connection. Handlers run on the connection's event loop; requests and alert
+     * pushes run on worker threads.
+     */
+    private final class Session {
+        final ServerWebSocket socket;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final Map<String, Watch> watches = new ConcurrentHashMap<>();
+        final AtomicBoolean closed = new AtomicBoolean();
+        volatile long lastMessage = System.currentTimeMillis();
+        volatile long lastPong = System.currentTimeMillis();
+        boolean paused;
+        long timerId;
+        Context context;
+
+        Session(ServerWebSocket socket) {
+            this.socket = socket;
+        }
+
+        void open() {
+            sessions.add(this);
+            context = vertx.getOrCreateContext();
+            socket.setWriteQueueMaxSize(maxQueuedBytes);
+            socket.textMessageHandler(this::onMessage);
+            socket.binaryMessageHandler(buffer -> send(jsonRpc.getErrorResponse(JsonRpcException.INVALID_REQUEST,
+                "Binary messages are not supported, send JSON-RPC as text", null)));
+            socket.pongHandler(buffer -> lastPong = System.currentTimeMillis());
+            socket.drainHandler(v -> {
+                updateReading();
+                // Pushes skipped while the queue was full
+                watches.values().forEach(Watch::run);
+            });
+            socket.exceptionHandler(e -> LOG.debugf("WebSocket error: %s", e.getMessage()));
+            socket.closeHandler(v -> close());
+            timerId = vertx.setPeriodic(pingIntervalSeconds * 1000, id -> heartbeat());
+        }
+
+        private void onMessage(String text) {
+            lastMessage = System.currentTimeMillis();
+            FlightRecorder.Trace trace = flightRecorder.begin("WS", PATH);
+            inFlight.incrementAndGet();
+            updateReading();
+            // A long-poll frees the worker while it waits; the request stays in flight until answered
+            vertx.executeBlocking(() -> handle(text, trace), false)
+                .compose(handled -> Future.fromCompletionStage(handled, context))
+                .onComplete(result -> {
+                    inFlight.decrementAndGet();
+                    updateReading();
+                });
+        }
+
+        /**
+         * Runs one message and sends its response, if any. The trace is committed once the
+         * message is done with, however that happens.
+         */
+        private CompletionStage<Void> handle(String text, FlightRecorder.Trace trace) {
+            CompletionStage<Void> handled;
+            try {
+                handled = dispatch(text, trace);
+            } catch (RuntimeException e) {
+                handled = CompletableFuture.failedFuture(e);
+            }
+            return handled.whenComplete((v, e) -> {
+                if (trace != null) {
+                    flightRecorder.commit(trace);
+                }
+            });
+        }
+
+        private CompletionStage<Void> dispatch(String text, FlightRecorder.Trace trace) {
+            Map<String, Object> request;
+            try {
+                Object parsed = objectMapper.readValue(text, Object.class);
+                if (!(parsed instanceof Map) || !(((Map<?, ?>) parsed).get("method") instanceof String)) {
+                    Object id = parsed instanceof Map ? ((Map<?, ?>) parsed).get("id") : null;
+                    send(jsonRpc.getErrorResponse(JsonRpcException.INVALID_REQUEST,
+                        "Invalid request: expected one JSON-RPC request object with a method", id));
+                    return CompletableFuture.completedFuture(null);
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> map = (Map<String, Object>) parsed;
+                request = map;
+            } catch (Exception e) {
+                send(jsonRpc.getErrorResponse(JsonRpcException.PARSE_ERROR, "Parse error: " + e.getMessage(), null));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            String method = (String) request.get("method");
+            Object id = request.get("id");
+            // Without an id it is a notification; nobody is waiting for the response. An id
+            // of null still gets one.
+            boolean notification = !request.containsKey("id");
+
+            CompletionStage<Map<String, Object>> response;
+            boolean traced = FlightRecorder.enter(trace, method);
+            try {
+                response = WATCH.equals(method) || UNWATCH.equals(method)
+                    ? CompletableFuture.completedFuture(respondToWatch(request))
+                    : jsonRpc.respond(request);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            } finally {
+                if (traced) {
+                    FlightRecorder.exit();
+                }
+            }
+
+            return response
+                .exceptionally(e -> {
+                    LOG.debugf("WebSocket request %s failed: %s", method, e.getMessage());
+                    return jsonRpc.getErrorResponse(JsonRpcException.INTERNAL_ERROR, "Internal error", id);
+                })
+                .thenAccept(completed -> {
+                    if (notification) {
+                        return;
+                    }
+                    long serializeStart = System.nanoTime();
+                    send(completed);
+                    if (trace != null) {
+                        trace.add(FlightRecorder.Phase.SERIALIZE, System.nanoTime() - serializeStart);
+                    }
+                });
+        }
+
+        private Map<String, Object> respondToWatch(Map<String, Object> request) {
+            Object id = request.get("id");
+            Object params = request.get("params");
+            if (!(params instanceof Map)) {
+                return jsonRpc.getErrorResponse(JsonRpcException.INVALID_PARAMS,
+                    "Invalid params: expected an object with zip_code", id);
+            }
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> paramMap = (Map<String, Object>) params;
+            Object zipCode = paramMap.get("zip_code");
+            Object countryCode = paramMap.get("country_code");
+            if (!(zipCode instanceof String) || ((String) zipCode).isBlank()) {
+                return jsonRpc.getErrorResponse(JsonRpcException.INVALID_PARAMS, "Invalid params: zip_code is required", id);
+            }
+            String country = countryCode instanceof String && !((String) countryCode).isBlank()
+                ? ((String) countryCode).toLowerCase()
+                : "us";
+            String key = country + ":" + zipCode;
+
+            Map<String, Object> result = new HashMap<>();
+            if (UNWATCH.equals(request.get("method"))) {
+                Watch watch = watches.remove(key);
+                if (watch != null) {
+                    watch.cancel();
+                }
+                result.put("watching", false);
+            } else if (watches.containsKey(key)) {
+                result.put("watching", true);
+            } else {
+                if (watches.size() >= maxWatches) {
+                    return tooManyWatches(id);
+                }
+
+                // Start from the current alerts; notifications carry changes from here on
+                Watch watch = new Watch((String) zipCode, country);
+                Map<String, Object> alerts = weatherSkills.getWeatherAlerts(watch.params(null));
+                if (alerts.containsKey("error")) {
+                    return jsonRpc.getResultResponse(alerts, id);
+                }
+                watch.cursor = (String) alerts.get("cursor");
+
+                // Under the lock close() takes, so a watch is never added after it cleared them
+                synchronized (this) {
+                    if (closed.get()) {
+                        return jsonRpc.getErrorResponse(JsonRpcException.INVALID_REQUEST, "Connection is closed", id);
+                    }
+                    if (watches.containsKey(key)) {
+                        // Another request on this connection got there first
+                        alerts = Map.of();
+                    } else if (watches.size() >= maxWatches) {
+                        return tooManyWatches(id);
+                    } else {
+                        watches.put(key, watch);
+                        watch.start();
+                    }
+                }
+                result.putAll(alerts);
+                result.put("watching", true);
+            }
+            result.put("zip_code", zipCode);
+            result.put("country_code", country);
+            return jsonRpc.getResultResponse(result, id);
+        }
+
+        private Map<String, Object> tooManyWatches(Object id) {
+            return jsonRpc.getErrorResponse(JsonRpcException.INVALID_PARAMS,
+                "Too many watched locations on this connection (max " + maxWatches + ")", id);
+        }
+
+        void send(Map<String, Object> message) {
+            if (closed.get()) {
+                return;
+            }
+
+            try {
+                socket.writeTextMessage(objectMapper.writeValueAsString(message));
+            } catch (Exception e) {
+                LOG.debugf("WebSocket send failed: %s", e.getMessage());
+            }
+        }
+
+        /**
+         * Pauses reading while too many requests are running or the client is not keeping
+         * up with responses, and resumes once both are back under their limits.
+         */
+        private void updateReading() {
+            if (closed.get()) {
+                return;
+            }
+
+            boolean shouldPause = inFlight.get() >= maxInFlight || socket.writeQueueFull();
+            if (shouldPause && !paused) {
+                socket.pause();
+                paused = true;
+            } else if (!shouldPause && paused) {
+                socket.resume();
+                paused = false;
+            }
+        }
+
+        private void heartbeat() {
+            long now = System.currentTimeMillis();
+            // A paused connection does not read pongs, so only judge liveness while reading
+            if (!paused && now - lastPong > pingIntervalSeconds * 2000) {
+                socket.close((short) 1001, "No pong received");
+                return;
+            }
+            if (inFlight.get() == 0 && watches.isEmpty() && now - lastMessage > idleTimeoutSeconds * 1000) {
+                socket.close((short) 1000, "Idle timeout");
+                return;
+            }
+            socket.writePing(Buffer.buffer());
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+
+            vertx.cancelTimer(timerId);
+            synchronized (this) {
+                watches.values().forEach(Watch::cancel);
+                watches.clear();
+            }
+            sessions.remove(this);
+            connections.decrementAndGet();
+        }
+
+        /**
+         * A watched location. Alert store changes schedule a push, which sends the changes
+         * since the last one; pushes for one watch never overlap.
+         */
+        private final class Watch implements Runnable {
+            final String zipCode;
+            final String countryCode;
+            final AtomicBoolean scheduled = new AtomicBoolean();
+            String cursor;
+            Runnable unwatch;
+
+            Watch(String zipCode, String countryCode) {
+                this.zipCode = zipCode;
+                this.countryCode = countryCode;
+            }
+
+            Map<String, Object> params(String since) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("zip_code", zipCode);
+                params.put("country_code", countryCode);
+                params.put("since", since);
+                return params;
+            }
+
+            void start() {
+                unwatch = alertStore.watch(zipCode, countryCode, this);
+                // Catch changes made between reading the cursor and registering
+                run();
+            }
+
+            void cancel() {
+                if (unwatch != null) {
+                    unwatch.run();
+                }
+            }
+
+            @Override
+            public void run() {
+                if (scheduled.compareAndSet(false, true)) {
+                    vertx.executeBlocking(() -> {
+                        push();
+                        return null;
+                    }, false);
+                }
+            }
+
+            private synchronized void push() {
+                scheduled.set(false);
+                if (closed.get() || socket.writeQueueFull()) {
+                    // The cursor stays put, so the drain handler's push sends these changes too
+                    return;
+                }
+
+                Map<String, Object> alerts = weatherSkills.getWeatherAlerts(params(cursor));
+                if (alerts.containsKey("error")) {
+                    return;
+                }
+                cursor = (String) alerts.get("cursor");
+                if (((List<?>) alerts.get("alerts")).isEmpty()) {
+                    return;
+                }
+                send(Map.of("jsonrpc", "2.0", "method", ALERTS_NOTIFICATION, "params", alerts));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.a2a.examples.weather;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * In-process stand-in for the shared cache tier, for tests and local development where no
+ * Redis is available. Every {@link WeatherCache} in the JVM that uses it sees the same
+ * entries and invalidations, which is enough to exercise the two-level behaviour.
+ */
+public class LocalSharedCache implements SharedCache {
+
+    private static final class Value {
+        final byte[] bytes;
+        final long expiresAt;
+
+        Value(byte[] bytes, long expiresAt) {
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Value> values = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public byte[] get(String key) {
+        Value value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= value.expiresAt) {
+            values.remove(key, value);
+            return null;
+        }
+        return value.bytes;
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMillis) {
+        values.put(key, new Value(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Override
+    public void delete(String key) {
+        values.remove(key);
+    }
+
+    @Override
+    public void publishInvalidation(String origin, String key) {
+        for (BiConsumer<String, String> listener : listeners) {
+            listener.accept(origin, key);
+        }
+    }
+
+    @Override
+    public void onInvalidation(BiConsumer<String, String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public String type() {
+        return "local";
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+}
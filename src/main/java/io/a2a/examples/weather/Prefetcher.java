@@ -0,0 +1,262 @@
+package io.a2a.examples.weather;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the most requested locations and refreshes their cached data shortly before it
+ * expires, so popular ZIP codes keep hitting the cache.
+ *
+ * Requests are counted per skill and location in a {@link HeavyHitters} sketch. Every
+ * interval the top locations whose data expires within the lead time are refetched, using
+ * only the upstream quota left over by regular requests in the current minute. Locations
+ * whose refresh fails or leaves nothing in the cache are retried with exponential backoff.
+ */
+@ApplicationScoped
+public class Prefetcher {
+
+    private static final Logger LOG = Logger.getLogger(Prefetcher.class);
+
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    WeatherCache weatherCache;
+
+    @Inject
+    @ConfigProperty(name = "weather.prefetch.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "weather.prefetch.top-k", defaultValue = "200")
+    int topK;
+
+    @Inject
+    @ConfigProperty(name = "weather.prefetch.interval", defaultValue = "15")
+    long intervalSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.prefetch.lead", defaultValue = "60")
+    long leadSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.prefetch.decay-interval", defaultValue = "600")
+    long decayIntervalSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.prefetch.upstream-limit-per-minute", defaultValue = "60")
+    int upstreamLimitPerMinute;
+
+    private volatile HeavyHitters heavyHitters;
+    private ScheduledExecutorService executor;
+    private final LongAdder prefetched = new LongAdder();
+    private final LongAdder prefetchFailures = new LongAdder();
+    private final LongAdder skippedForQuota = new LongAdder();
+    private final LongAdder skippedForBackoff = new LongAdder();
+    // Locations whose last refresh cached nothing, until when to leave them alone
+    private final Map<String, Retry> retries = new ConcurrentHashMap<>();
+
+    void onStart(@Observes StartupEvent event) {
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        stop();
+    }
+
+    /**
+     * Counts a request for a cached skill. Cheap enough to call on every request.
+     */
+    public void record(String skill, String zipCode, String countryCode) {
+        HeavyHitters tracker = heavyHitters;
+        // The separators are part of the tracked key
+        if (tracker != null && isTrackable(zipCode) && isTrackable(countryCode)) {
+            tracker.record(skill + "|" + zipCode + "," + countryCode);
+        }
+    }
+
+    /**
+     * The current hot set, most requested first, with each location's estimated recent
+     * request count and cache expiry.
+     */
+    public Map<String, Object> hotSet(int limit) {
+        HeavyHitters tracker = heavyHitters;
+        List<Map<String, Object>> locations = new ArrayList<>();
+        if (tracker != null) {
+            for (Map.Entry<String, Long> entry : tracker.top(limit).entrySet()) {
+                Location location = Location.parse(entry.getKey());
+                Map<String, Object> hot = new HashMap<>();
+                hot.put("skill", location.skill);
+                hot.put("zip_code", location.zipCode);
+                hot.put("country_code", location.countryCode);
+                hot.put("estimated_requests", entry.getValue());
+                long expiresAt = weatherCache.expiresAt(location.cacheKey());
+                hot.put("cache_expires_in_ms", expiresAt > 0 ? Math.max(0, expiresAt - System.currentTimeMillis()) : null);
+                locations.add(hot);
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("prefetch_active", enabled && tracker != null && weatherService.isConfigured());
+        result.put("top_k", topK);
+        result.put("locations", locations);
+        result.put("prefetched", prefetched.sum());
+        result.put("prefetch_failures", prefetchFailures.sum());
+        result.put("skipped_for_quota", skippedForQuota.sum());
+        result.put("skipped_for_backoff", skippedForBackoff.sum());
+        result.put("upstream_calls_this_minute", weatherService.upstreamCallsThisMinute());
+        return result;
+    }
+
+    synchronized void start() {
+        if (!enabled || executor != null) {
+            return;
+        }
+        if (topK < 1) {
+            LOG.warnf("weather.prefetch.top-k must be at least 1 (got %d), prefetch disabled", topK);
+            return;
+        }
+
+        if (heavyHitters == null) {
+            // Sketch width well above K keeps overestimates of cold keys low
+            heavyHitters = new HeavyHitters(topK, topK * 16);
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "weather-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::prefetch, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        if (decayIntervalSeconds > 0) {
+            executor.scheduleWithFixedDelay(heavyHitters::decay,
+                decayIntervalSeconds, decayIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops prefetching. Used at shutdown and before a CRaC checkpoint; the hot set is kept.
+     */
+    synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    private void prefetch() {
+        if (!weatherService.isConfigured()) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            long refreshBefore = now + leadSeconds * 1000;
+            Map<String, Long> top = heavyHitters.top(topK);
+            // Forget locations that dropped out of the hot set
+            retries.keySet().retainAll(top.keySet());
+
+            for (String key : top.keySet()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                Location location = Location.parse(key);
+                if (weatherCache.expiresAt(location.cacheKey()) > refreshBefore) {
+                    continue;
+                }
+
+                Retry retry = retries.get(key);
+                if (retry != null && retry.notBefore > now) {
+                    skippedForBackoff.increment();
+                    continue;
+                }
+
+                if (weatherService.upstreamCallsThisMinute() >= upstreamLimitPerMinute) {
+                    skippedForQuota.increment();
+                    continue;
+                }
+
+                boolean refreshed = weatherService.refresh(location.skill, location.zipCode, location.countryCode);
+                // Error results (e.g. an unknown ZIP code) succeed upstream but are never cached
+                if (refreshed && weatherCache.expiresAt(location.cacheKey()) > System.currentTimeMillis()) {
+                    prefetched.increment();
+                    retries.remove(key);
+                } else {
+                    prefetchFailures.increment();
+                    retries.put(key, Retry.after(retry, intervalSeconds * 1000));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive
+            LOG.warnf("Prefetch run failed: %s", e.getMessage());
+        }
+    }
+
+    private static boolean isTrackable(String value) {
+        return value.indexOf('|') < 0 && value.indexOf(',') < 0;
+    }
+
+    /**
+     * Backoff state for one location: the delay doubles with each consecutive failure.
+     */
+    private static final class Retry {
+        final int failures;
+        final long notBefore;
+
+        private Retry(int failures, long notBefore) {
+            this.failures = failures;
+            this.notBefore = notBefore;
+        }
+
+        static Retry after(Retry previous, long baseDelayMillis) {
+            int failures = previous == null ? 1 : previous.failures + 1;
+            long delay = Math.min(MAX_RETRY_DELAY_MILLIS, baseDelayMillis << Math.min(failures, 20));
+            return new Retry(failures, System.currentTimeMillis() + delay);
+        }
+    }
+
+    private static final class Location {
+        final String skill;
+        final String zipCode;
+        final String countryCode;
+
+        private Location(String skill, String zipCode, String countryCode) {
+            this.skill = skill;
+            this.zipCode = zipCode;
+            this.countryCode = countryCode;
+        }
+
+        static Location parse(String key) {
+            int bar = key.indexOf('|');
+            int comma = key.lastIndexOf(',');
+            return new Location(key.substring(0, bar), key.substring(bar + 1, comma), key.substring(comma + 1));
+        }
+
+        String cacheKey() {
+            return "get_weather_forecast".equals(skill)
+                ? WeatherService.forecastCacheKey(zipCode, countryCode)
+                : WeatherService.currentCacheKey(zipCode, countryCode);
+        }
+    }
+}
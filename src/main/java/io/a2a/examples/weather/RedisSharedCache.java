@@ -0,0 +1,223 @@
+package io.a2a.examples.weather;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisConnection;
+import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Shared cache tier backed by any server speaking the Redis protocol, e.g. Heroku Data for
+ * Redis, using the Vert.x Redis client on the application's Vert.x instance.
+ *
+ * Request commands use the client's connection pool and wait at most the configured
+ * timeout; invalidations arrive over a dedicated pub/sub connection that reconnects on
+ * failure. After a connection failure, commands fail fast for a few seconds instead of
+ * each paying the timeout while the server is down.
+ *
+ * TLS ({@code rediss://}) verifies the server certificate and host name against the JVM
+ * trust store, or against a pinned CA certificate when one is given. Skipping verification
+ * must be asked for explicitly.
+ */
+public class RedisSharedCache implements SharedCache {
+
+    private static final Logger LOG = Logger.getLogger(RedisSharedCache.class);
+
+    private static final String KEY_PREFIX = "weather:cache:";
+    private static final String INVALIDATION_CHANNEL = "weather:cache:invalidate";
+    private static final int POOL_SIZE = 8;
+    private static final long BACKOFF_MILLIS = 5000;
+    private static final long RESUBSCRIBE_MILLIS = 1000;
+
+    private final Vertx vertx;
+    private final Redis client;
+    private final int timeoutMillis;
+    private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean closed;
+    private volatile long unavailableUntil;
+    private RedisConnection subscriber;
+    private boolean subscribing;
+
+    public RedisSharedCache(Vertx vertx, String url, int timeoutMillis, boolean verifyPeer, String caCertPath) {
+        this.vertx = vertx;
+        this.timeoutMillis = timeoutMillis;
+
+        NetClientOptions net = new NetClientOptions()
+            .setConnectTimeout(timeoutMillis)
+            .setTcpNoDelay(true);
+        if (!verifyPeer) {
+            net.setTrustAll(true);
+        } else {
+            net.setHostnameVerificationAlgorithm("HTTPS");
+            if (caCertPath != null && !caCertPath.isBlank()) {
+                net.setPemTrustOptions(new PemTrustOptions().addCertPath(caCertPath.trim()));
+            }
+        }
+
+        // One extra connection is held by the invalidation subscription
+        this.client = Redis.createClient(vertx, new RedisOptions()
+            .setConnectionString(url)
+            .setNetClientOptions(net)
+            .setMaxPoolSize(POOL_SIZE + 1)
+            .setMaxPoolWaiting(POOL_SIZE * 4));
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        Response reply = execute(Request.cmd(Command.GET).arg(KEY_PREFIX + key));
+        return reply == null ? null : reply.toBytes();
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMillis) throws IOException {
+        execute(Request.cmd(Command.SET).arg(KEY_PREFIX + key).arg(Buffer.buffer(value)).arg("PX").arg(ttlMillis));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        execute(Request.cmd(Command.DEL).arg(KEY_PREFIX + key));
+    }
+
+    @Override
+    public void publishInvalidation(String origin, String key) throws IOException {
+        execute(Request.cmd(Command.PUBLISH).arg(INVALIDATION_CHANNEL).arg(origin + " " + key));
+    }
+
+    @Override
+    public synchronized void onInvalidation(BiConsumer<String, String> listener) {
+        listeners.add(listener);
+        if (!subscribing && !closed) {
+            subscribing = true;
+            subscribe();
+        }
+    }
+
+    @Override
+    public String type() {
+        return "redis";
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (subscriber != null) {
+            subscriber.close();
+            subscriber = null;
+        }
+        client.close();
+    }
+
+    private Response execute(Request request) throws IOException {
+        if (closed) {
+            throw new IOException("Shared cache is closed");
+        }
+        if (System.currentTimeMillis() < unavailableUntil) {
+            throw new IOException("Shared cache unavailable, backing off");
+        }
+        if (Context.isOnEventLoopThread()) {
+            // The reply is delivered on an event loop, possibly this one
+            throw new IOException("Shared cache cannot block an event loop thread");
+        }
+
+        try {
+            return client.send(request).toCompletionStage().toCompletableFuture()
+                .get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for the shared cache", e);
+        } catch (TimeoutException e) {
+            IOException failure = new IOException("Shared cache timed out after " + timeoutMillis + " ms", e);
+            backOff(failure);
+            throw failure;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            IOException failure = new IOException("Shared cache error: " + cause.getMessage(), cause);
+            // An error reply means the server is up; only connection failures back off
+            if (cause instanceof IOException) {
+                backOff(failure);
+            }
+            throw failure;
+        }
+    }
+
+    private void backOff(IOException cause) {
+        if (System.currentTimeMillis() >= unavailableUntil) {
+            LOG.warnf("Shared cache unreachable, skipping it for %d ms: %s", BACKOFF_MILLIS, cause.getMessage());
+        }
+        unavailableUntil = System.currentTimeMillis() + BACKOFF_MILLIS;
+    }
+
+    private void subscribe() {
+        client.connect().onComplete(connected -> {
+            if (connected.failed()) {
+                LOG.debugf("Invalidation subscription failed, retrying: %s", connected.cause().getMessage());
+                retrySubscribe();
+                return;
+            }
+
+            RedisConnection connection = connected.result();
+            synchronized (this) {
+                if (closed) {
+                    connection.close();
+                    return;
+                }
+                subscriber = connection;
+            }
+            connection.handler(this::onMessage);
+            connection.exceptionHandler(e -> LOG.debugf("Invalidation subscription error: %s", e.getMessage()));
+            connection.endHandler(v -> resubscribe(connection));
+            connection.send(Request.cmd(Command.SUBSCRIBE).arg(INVALIDATION_CHANNEL))
+                .onFailure(e -> connection.close());
+        });
+    }
+
+    private void resubscribe(RedisConnection connection) {
+        synchronized (this) {
+            if (subscriber != connection) {
+                return;
+            }
+            subscriber = null;
+        }
+        LOG.debug("Invalidation subscription lost, reconnecting");
+        retrySubscribe();
+    }
+
+    private void retrySubscribe() {
+        if (!closed) {
+            vertx.setTimer(RESUBSCRIBE_MILLIS, id -> subscribe());
+        }
+    }
+
+    private void onMessage(Response message) {
+        // Pub/sub pushes are ["message", channel, payload]
+        if (message.size() != 3 || !"message".equals(message.get(0).toString())) {
+            return;
+        }
+
+        String payload = message.get(2).toString();
+        int separator = payload.indexOf(' ');
+        if (separator > 0) {
+            String origin = payload.substring(0, separator);
+            String key = payload.substring(separator + 1);
+            for (BiConsumer<String, String> listener : listeners) {
+                listener.accept(origin, key);
+            }
+        }
+    }
+}
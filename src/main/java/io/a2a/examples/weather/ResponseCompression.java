@@ -0,0 +1,152 @@
+package io.a2a.examples.weather;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses response bodies with brotli or gzip based on {@code Accept-Encoding}.
+ * Bodies below the configured threshold are sent as-is, since compressing a tiny health
+ * or error response costs more CPU than it saves in bytes.
+ */
+@Provider
+public class ResponseCompression implements ContainerRequestFilter, WriterInterceptor {
+
+    private static final Logger LOG = Logger.getLogger(ResponseCompression.class);
+
+    private static final String ENCODING_PROPERTY = ResponseCompression.class.getName() + ".encoding";
+
+    static final String BROTLI = "br";
+    static final String GZIP = "gzip";
+
+    private static final boolean BROTLI_AVAILABLE = loadBrotli();
+
+    @Inject
+    RoutingContext routingContext;
+
+    @Inject
+    @ConfigProperty(name = "weather.compression.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "weather.compression.threshold", defaultValue = "1024")
+    int threshold;
+
+    @Inject
+    @ConfigProperty(name = "weather.compression.brotli.quality", defaultValue = "4")
+    int brotliQuality;
+
+    /**
+     * Content encodings this agent can produce, in order of preference.
+     */
+    static List<String> supportedEncodings() {
+        return BROTLI_AVAILABLE ? List.of(BROTLI, GZIP, "identity") : List.of(GZIP, "identity");
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!enabled) {
+            return;
+        }
+
+        String encoding = negotiate(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding != null) {
+            requestContext.setProperty(ENCODING_PROPERTY, encoding);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        String encoding = (String) context.getProperty(ENCODING_PROPERTY);
+        if (encoding == null) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream original = context.getOutputStream();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        context.setOutputStream(buffer);
+        context.proceed();
+
+        // Headers of the JAX-RS context are already encoded by the time proceed() returns,
+        // so these go straight onto the Vert.x response before the first body write
+        byte[] body = buffer.toByteArray();
+        HttpServerResponse response = routingContext.response();
+        response.putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.length >= threshold) {
+            body = compress(body, encoding);
+            response.putHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+
+        context.setOutputStream(original);
+        original.write(body);
+    }
+
+    private byte[] compress(byte[] body, String encoding) throws IOException {
+        if (BROTLI.equals(encoding)) {
+            return Encoder.compress(body, new Encoder.Parameters().setQuality(brotliQuality));
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Picks brotli over gzip when the client accepts both; returns null for identity.
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+
+        boolean brotli = false;
+        boolean gzip = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (tokens.length > 1 && tokens[1].trim().matches("q\\s*=\\s*0(\\.0*)?")) {
+                continue;
+            }
+            if (coding.equals(BROTLI)) {
+                brotli = true;
+            } else if (coding.equals(GZIP) || coding.equals("*")) {
+                gzip = true;
+            }
+        }
+
+        if (brotli && BROTLI_AVAILABLE) {
+            return BROTLI;
+        }
+        return gzip ? GZIP : null;
+    }
+
+    private static boolean loadBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable t) {
+            LOG.infof("Brotli not available on this platform, falling back to gzip: %s", t.getMessage());
+            return false;
+        }
+    }
+}
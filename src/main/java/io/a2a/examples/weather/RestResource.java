@@ -0,0 +1,181 @@
+package io.a2a.examples.weather;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+import jakarta.inject.Inject;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
+import io.vertx.ext.web.RoutingContext;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+/**
+ * HTTP+JSON transport. Weather skills are plain GET routes per location, and A2A tasks
+ * follow the A2A HTTP+JSON binding ({@code /v1/message:send}, {@code /v1/tasks/{id}}).
+ * Everything runs through the same {@link WeatherSkills} and {@link TaskManager} as
+ * {@code /jsonrpc}; errors use HTTP status codes with the usual error body.
+ */
+@Path("/v1")
+@Produces({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
+public class RestResource {
+
+    @Inject
+    WeatherSkills weatherSkills;
+
+    @Inject
+    TaskManager taskManager;
+
+    @Inject
+    Request request;
+
+    @Inject
+    RoutingContext routingContext;
+
+    @GET
+    @Path("/weather/{zipCode}/current")
+    public Response getCurrentWeather(@PathParam("zipCode") String zipCode,
+                                      @QueryParam("country_code") String countryCode,
+                                      @QueryParam("units") String units) {
+        return skill("get_current_weather", () -> weatherSkills.getCurrentWeather(params(zipCode, countryCode, units)));
+    }
+
+    @GET
+    @Path("/weather/{zipCode}/forecast")
+    public Response getWeatherForecast(@PathParam("zipCode") String zipCode,
+                                       @QueryParam("country_code") String countryCode,
+                                       @QueryParam("units") String units) {
+        return skill("get_weather_forecast", () -> weatherSkills.getWeatherForecast(params(zipCode, countryCode, units)));
+    }
+
+    @GET
+    @Blocking
+    @Path("/weather/{zipCode}/alerts")
+    public Uni<Response> getWeatherAlerts(@PathParam("zipCode") String zipCode,
+                                          @QueryParam("country_code") String countryCode,
+                                          @QueryParam("since") String since,
+                                          @QueryParam("wait") Double wait) {
+        Map<String, Object> params = params(zipCode, countryCode, null);
+        params.put("since", since);
+        params.put("wait", wait);
+        // Negotiate now; a long-poll completes after this request's thread has moved on
+        Variant variant = variant();
+        return Uni.createFrom().completionStage(traced("get_weather_alerts", () -> weatherSkills.getWeatherAlertsAsync(params)))
+            .map(alerts -> skillResponse(alerts, variant));
+    }
+
+    @GET
+    @Path("/weather/{zipCode}/history")
+    public Response getWeatherHistory(@PathParam("zipCode") String zipCode,
+                                      @QueryParam("country_code") String countryCode,
+                                      @QueryParam("units") String units,
+                                      @QueryParam("start_date") String startDate,
+                                      @QueryParam("end_date") String endDate) {
+        Map<String, Object> params = params(zipCode, countryCode, units);
+        params.put("start_date", startDate);
+        params.put("end_date", endDate);
+        return skill("get_weather_history", () -> weatherSkills.getWeatherHistory(params));
+    }
+
+    @POST
+    @Path("/message:send")
+    @Consumes({MediaType.APPLICATION_JSON, BinaryJsonProvider.APPLICATION_CBOR, BinaryJsonProvider.APPLICATION_SMILE})
+    public Response sendMessage(Map<String, Object> body) {
+        return task("message/send", () -> taskManager.send(body, weatherSkills::execute));
+    }
+
+    @GET
+    @Path("/tasks/{id: [^/:]+}")
+    public Response getTask(@PathParam("id") String id, @QueryParam("historyLength") Integer historyLength) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        params.put("historyLength", historyLength);
+        return task("tasks/get", () -> taskManager.get(params));
+    }
+
+    @POST
+    @Path("/tasks/{id: [^/:]+}:cancel")
+    public Response cancelTask(@PathParam("id") String id) {
+        return task("tasks/cancel", () -> taskManager.cancel(Map.of("id", id)));
+    }
+
+    private Response skill(String skill, Supplier<Map<String, Object>> call) {
+        return skillResponse(traced(skill, call), variant());
+    }
+
+    private static Response skillResponse(Map<String, Object> result, Variant variant) {
+        if (result.containsKey("error")) {
+            Response.Status status = "WEATHER_API_ERROR".equals(result.get("error_code"))
+                ? Response.Status.BAD_GATEWAY
+                : Response.Status.BAD_REQUEST;
+            return negotiated(status, result, variant);
+        }
+        return negotiated(Response.Status.OK, result, variant);
+    }
+
+    private Response task(String method, Supplier<Map<String, Object>> call) {
+        try {
+            return negotiated(Response.Status.OK, traced(method, call), variant());
+        } catch (JsonRpcException e) {
+            return negotiated(statusOf(e.getCode()), Map.of(
+                "error", e.getMessage(),
+                "error_code", e.getCode()
+            ), variant());
+        }
+    }
+
+    private <T> T traced(String operation, Supplier<T> call) {
+        if (!FlightRecorder.enter(routingContext, operation)) {
+            return call.get();
+        }
+
+        long dispatchStart = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            FlightRecorder.phase(FlightRecorder.Phase.DISPATCH, dispatchStart);
+            FlightRecorder.exit();
+        }
+    }
+
+    private static Map<String, Object> params(String zipCode, String countryCode, String units) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("zip_code", zipCode);
+        params.put("country_code", countryCode);
+        params.put("units", units);
+        return params;
+    }
+
+    private static Response.Status statusOf(int code) {
+        switch (code) {
+            case JsonRpcException.INVALID_PARAMS:
+                return Response.Status.BAD_REQUEST;
+            case JsonRpcException.TASK_NOT_FOUND:
+                return Response.Status.NOT_FOUND;
+            case JsonRpcException.TASK_NOT_CANCELABLE:
+                return Response.Status.CONFLICT;
+            default:
+                return Response.Status.INTERNAL_SERVER_ERROR;
+        }
+    }
+
+    private Variant variant() {
+        return request != null ? request.selectVariant(BinaryJsonProvider.VARIANTS) : null;
+    }
+
+    private static Response negotiated(Response.Status status, Map<String, Object> entity, Variant variant) {
+        if (variant == null) {
+            return Response.status(status).entity(entity).type(MediaType.APPLICATION_JSON_TYPE).build();
+        }
+        return Response.status(status).entity(entity).variant(variant).build();
+    }
+}
@@ -34,6 +34,9 @@ public class RootResource {
         endpoints.put("authenticatedCard", getBaseUrl() + "/agent/authenticatedExtendedCard");
         endpoints.put("health", getBaseUrl() + "/agent/health");
         endpoints.put("jsonrpc", getBaseUrl() + "/jsonrpc");
+        endpoints.put("rest", getBaseUrl() + "/v1");
+        endpoints.put("grpc", getBaseUrl());
+        endpoints.put("websocket", getBaseUrl().replaceFirst("^http", "ws") + JsonRpcWebSocket.PATH);
         root.put("endpoints", endpoints);
         
         root.put("capabilities", List.of(
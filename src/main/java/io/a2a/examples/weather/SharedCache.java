@@ -0,0 +1,35 @@
+package io.a2a.examples.weather;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+/**
+ * Second cache level shared by all instances, sitting behind each instance's in-memory
+ * near cache in {@link WeatherCache}. Values are opaque bytes.
+ *
+ * Implementations must be safe to call from request threads. Failures surface as
+ * {@link IOException} so callers can treat them as misses.
+ */
+public interface SharedCache extends AutoCloseable {
+
+    byte[] get(String key) throws IOException;
+
+    void put(String key, byte[] value, long ttlMillis) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Tells every other instance to drop its near-cache copy of a key.
+     */
+    void publishInvalidation(String origin, String key) throws IOException;
+
+    /**
+     * Registers a listener for invalidations, called with the origin instance and the key.
+     */
+    void onInvalidation(BiConsumer<String, String> listener);
+
+    String type();
+
+    @Override
+    void close();
+}
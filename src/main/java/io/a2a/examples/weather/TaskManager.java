@@ -0,0 +1,229 @@
+package io.a2a.examples.weather;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * A2A task lifecycle: creates tasks from {@code message/send}, runs them on a bounded
+ * executor and answers {@code tasks/get} and {@code tasks/cancel}.
+ *
+ * A task runs a single weather skill. The skill and its params are taken from a data part
+ * of the message, e.g. {@code {"kind": "data", "data": {"skill": "get_weather_history",
+ * "zip_code": "10001"}}}.
+ */
+@ApplicationScoped
+public class TaskManager {
+
+    @Inject
+    TaskStore taskStore;
+
+    @Inject
+    @ConfigProperty(name = "weather.tasks.threads", defaultValue = "4")
+    int threads;
+
+    @Inject
+    @ConfigProperty(name = "weather.tasks.queue-size", defaultValue = "100")
+    int queueSize;
+
+    @Inject
+    @ConfigProperty(name = "weather.tasks.blocking-timeout", defaultValue = "30")
+    long blockingTimeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "weather-task-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates and stores a task for a {@code message/send} or {@code message/stream} call
+     * without starting it, so stream subscribers can attach before the first transition.
+     */
+    WeatherTask create(Object params) {
+        if (!(params instanceof Map)) {
+            throw new JsonRpcException(JsonRpcException.INVALID_PARAMS, "Invalid params: expected an object with a message");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> message = (Map<String, Object>) ((Map<String, Object>) params).get("message");
+        if (message == null) {
+            throw new JsonRpcException(JsonRpcException.INVALID_PARAMS, "Invalid params: message is required");
+        }
+
+        Map<String, Object> skillParams = findDataPart(message);
+        Object skill = skillParams != null ? skillParams.get("skill") : null;
+        if (!(skill instanceof String) || ((String) skill).trim().isEmpty()) {
+            throw new JsonRpcException(JsonRpcException.INVALID_PARAMS,
+                "Invalid params: message needs a data part with a skill, e.g. {\"kind\": \"data\", \"data\": {\"skill\": \"get_current_weather\", \"zip_code\": \"10001\"}}");
+        }
+
+        Object contextId = message.get("contextId");
+        WeatherTask task = new WeatherTask(
+            UUID.randomUUID().toString(),
+            contextId instanceof String ? (String) contextId : UUID.randomUUID().toString(),
+            (String) skill,
+            skillParams,
+            message
+        );
+        taskStore.add(task);
+        return task;
+    }
+
+    /**
+     * Queues a created task on the executor. If the queue is full the task is rejected.
+     */
+    void start(WeatherTask task, BiFunction<String, Object, Map<String, Object>> skillExecutor) {
+        try {
+            task.setFuture(executor.submit(() -> run(task, skillExecutor)));
+        } catch (RejectedExecutionException e) {
+            task.transition(WeatherTask.REJECTED, Map.of(
+                "error", "Task queue is full, retry later",
+                "error_code", "TASK_REJECTED"
+            ));
+        }
+    }
+
+    /**
+     * Handles {@code message/send}. Returns the task right away unless the caller asked
+     * for {@code configuration.blocking}, in which case it waits for the task to finish.
+     */
+    Map<String, Object> send(Object params, BiFunction<String, Object, Map<String, Object>> skillExecutor) {
+        WeatherTask task = create(params);
+        start(task, skillExecutor);
+
+        if (isBlocking(params)) {
+            Future<?> future = task.future();
+            if (future != null) {
+                try {
+                    future.get(blockingTimeoutSeconds, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    // Return the task as it stands; the caller can poll with tasks/get
+                } catch (Exception e) {
+                    // Canceled or failed; the task state already says so
+                }
+            }
+        }
+        return task.toJson(null);
+    }
+
+    Map<String, Object> get(Object params) {
+        return lookup(params).toJson(historyLength(params));
+    }
+
+    Map<String, Object> cancel(Object params) {
+        WeatherTask task = lookup(params);
+        Future<?> future = task.future();
+        boolean canceled;
+        try {
+            canceled = task.transition(WeatherTask.CANCELED, null);
+        } finally {
+            // Interrupt the worker even if a listener failed; a no-op once it has finished
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        if (!canceled) {
+            throw new JsonRpcException(JsonRpcException.TASK_NOT_CANCELABLE,
+                "Task cannot be canceled: " + task.id);
+        }
+        return task.toJson(null);
+    }
+
+    WeatherTask lookup(Object params) {
+        Object id = params instanceof Map ? ((Map<?, ?>) params).get("id") : null;
+        if (!(id instanceof String)) {
+            throw new JsonRpcException(JsonRpcException.INVALID_PARAMS, "Invalid params: id is required");
+        }
+
+        WeatherTask task = taskStore.get((String) id);
+        if (task == null) {
+            throw new JsonRpcException(JsonRpcException.TASK_NOT_FOUND, "Task not found: " + id);
+        }
+        return task;
+    }
+
+    private void run(WeatherTask task, BiFunction<String, Object, Map<String, Object>> skillExecutor) {
+        if (!task.transition(WeatherTask.WORKING, null)) {
+            return;
+        }
+
+        try {
+            Map<String, Object> result = skillExecutor.apply(task.skill, task.params);
+            task.transition(result.containsKey("error") ? WeatherTask.FAILED : WeatherTask.COMPLETED, result);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Task failed: " + e.getMessage());
+            error.put("error_code", "TASK_FAILED");
+            task.transition(WeatherTask.FAILED, error);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> findDataPart(Map<String, Object> message) {
+        Object parts = message.get("parts");
+        if (!(parts instanceof List)) {
+            return null;
+        }
+
+        for (Object part : (List<Object>) parts) {
+            if (!(part instanceof Map)) {
+                continue;
+            }
+            Map<String, Object> partMap = (Map<String, Object>) part;
+            // "kind" since A2A 0.3, "type" before
+            Object kind = partMap.containsKey("kind") ? partMap.get("kind") : partMap.get("type");
+            if ("data".equals(kind) && partMap.get("data") instanceof Map) {
+                return (Map<String, Object>) partMap.get("data");
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBlocking(Object params) {
+        Object configuration = ((Map<?, ?>) params).get("configuration");
+        return configuration instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) configuration).get("blocking"));
+    }
+
+    private static Integer historyLength(Object params) {
+        Object historyLength = ((Map<?, ?>) params).get("historyLength");
+        if (!(historyLength instanceof Number)) {
+            return null;
+        }
+        int length = ((Number) historyLength).intValue();
+        if (length < 0) {
+            throw new JsonRpcException(JsonRpcException.INVALID_PARAMS,
+                "Invalid params: historyLength must not be negative");
+        }
+        return length;
+    }
+}
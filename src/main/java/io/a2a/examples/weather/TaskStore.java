@@ -0,0 +1,77 @@
+package io.a2a.examples.weather;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory store for A2A tasks.
+ *
+ * Finished tasks are evicted once their TTL has passed, and when the store is full the
+ * oldest finished tasks make room for new ones. If every slot holds a task that is still
+ * running, new tasks are refused rather than letting the store grow.
+ */
+@ApplicationScoped
+public class TaskStore {
+
+    @Inject
+    @ConfigProperty(name = "weather.tasks.max-entries", defaultValue = "1000")
+    int maxEntries;
+
+    @Inject
+    @ConfigProperty(name = "weather.tasks.ttl", defaultValue = "3600")
+    long ttlSeconds;
+
+    // Insertion order doubles as age order for eviction
+    private final LinkedHashMap<String, WeatherTask> tasks = new LinkedHashMap<>();
+
+    synchronized void add(WeatherTask task) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+
+        if (tasks.size() >= maxEntries) {
+            evictOldestFinished();
+        }
+        if (tasks.size() >= maxEntries) {
+            throw new JsonRpcException(JsonRpcException.INTERNAL_ERROR,
+                "Task store is full (" + maxEntries + " running tasks), retry later");
+        }
+
+        tasks.put(task.id, task);
+    }
+
+    synchronized WeatherTask get(String id) {
+        WeatherTask task = tasks.get(id);
+        if (task != null && isExpired(task, System.currentTimeMillis())) {
+            tasks.remove(id);
+            return null;
+        }
+        return task;
+    }
+
+    synchronized int size() {
+        return tasks.size();
+    }
+
+    private boolean isExpired(WeatherTask task, long now) {
+        return task.isTerminal() && task.updatedAt() + ttlSeconds * 1000 <= now;
+    }
+
+    private void evictExpired(long now) {
+        tasks.values().removeIf(task -> isExpired(task, now));
+    }
+
+    private void evictOldestFinished() {
+        Iterator<Map.Entry<String, WeatherTask>> iterator = tasks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().isTerminal()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.a2a.examples.weather;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit systems a caller can request, mirroring OpenWeatherMap's {@code units} parameter.
+ *
+ * Weather data is fetched and cached once in imperial units (the canonical system) and
+ * converted here when the response is produced, so serving metric or standard callers
+ * costs no extra upstream calls or cache space. Pressure and visibility are passed
+ * through unchanged, as OpenWeatherMap does not vary them by unit system either.
+ */
+public enum Units {
+
+    IMPERIAL("°F", "mph", "in"),
+    METRIC("°C", "m/s", "mm"),
+    STANDARD("K", "m/s", "mm");
+
+    public static final Units CANONICAL = IMPERIAL;
+
+    private static final Set<String> TEMPERATURE_FIELDS = Set.of(
+        "temperature", "feels_like", "high_temperature", "low_temperature", "average_temperature"
+    );
+    private static final Set<String> SPEED_FIELDS = Set.of("wind_speed");
+    private static final Set<String> PRECIPITATION_FIELDS = Set.of("precipitation");
+    private static final Set<String> NESTED_LISTS = Set.of("forecasts", "historical_data");
+
+    private final String temperatureUnit;
+    private final String speedUnit;
+    private final String precipitationUnit;
+
+    Units(String temperatureUnit, String speedUnit, String precipitationUnit) {
+        this.temperatureUnit = temperatureUnit;
+        this.speedUnit = speedUnit;
+        this.precipitationUnit = precipitationUnit;
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses a {@code units} param; null or blank means the canonical system, an unknown
+     * value returns null.
+     */
+    public static Units parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return CANONICAL;
+        }
+
+        for (Units units : values()) {
+            if (units.id().equals(value.trim().toLowerCase(Locale.ROOT))) {
+                return units;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a copy of a canonical result converted to these units. The input is never
+     * modified since it may be shared through the cache.
+     */
+    public Map<String, Object> convert(Map<String, Object> result) {
+        if (result.containsKey("error")) {
+            return result;
+        }
+
+        Map<String, Object> converted = convertFields(result);
+        converted.put("units", Map.of(
+            "system", id(),
+            "temperature", temperatureUnit,
+            "wind_speed", speedUnit,
+            "precipitation", precipitationUnit
+        ));
+        return converted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> convertFields(Map<String, Object> source) {
+        Map<String, Object> target = new HashMap<>(source);
+        if (this == CANONICAL) {
+            return target;
+        }
+
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+
+            if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                if (TEMPERATURE_FIELDS.contains(field)) {
+                    target.put(field, round(temperature(number), 10));
+                } else if (SPEED_FIELDS.contains(field)) {
+                    target.put(field, round(number * 0.44704, 100));
+                } else if (PRECIPITATION_FIELDS.contains(field)) {
+                    target.put(field, round(number * 25.4, 100));
+                }
+            } else if (value instanceof List && NESTED_LISTS.contains(field)) {
+                List<Object> items = new ArrayList<>();
+                for (Object item : (List<Object>) value) {
+                    items.add(item instanceof Map ? convertFields((Map<String, Object>) item) : item);
+                }
+                target.put(field, items);
+            }
+        }
+        return target;
+    }
+
+    private double temperature(double fahrenheit) {
+        double celsius = (fahrenheit - 32) * 5 / 9;
+        return this == STANDARD ? celsius + 273.15 : celsius;
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+}
@@ -0,0 +1,445 @@
+package io.a2a.examples.weather;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory TTL cache for upstream weather results.
+ *
+ * The cache is snapshotted to a compact binary file periodically and at shutdown, and the
+ * snapshot is loaded at startup so a restarted instance serves warm data right away instead
+ * of hitting OpenWeatherMap for every location at once. Loaded entries stay in the
+ * memory-mapped snapshot until first read. Snapshots are written on a background thread
+ * and never block the request path.
+ *
+ * With {@code weather.cache.shared.type} set, this acts as the near cache in front of a
+ * {@link SharedCache} tier so several instances share one set of upstream results. Values
+ * go to the shared tier as their expiry followed by the same Smile payload used for
+ * snapshots, and a put tells the other instances to drop their near copy of the key.
+ * Shared tier failures are treated as misses.
+ */
+@ApplicationScoped
+public class WeatherCache {
+
+    private static final Logger LOG = Logger.getLogger(WeatherCache.class);
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.snapshot.enabled", defaultValue = "true")
+    boolean snapshotEnabled;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.snapshot.path", defaultValue = "/tmp/weather-cache.snapshot")
+    String snapshotPath;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.snapshot.interval", defaultValue = "60")
+    long snapshotIntervalSeconds;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.shared.type", defaultValue = "none")
+    String sharedType;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.shared.redis.url")
+    Optional<String> redisUrl;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.shared.redis.verify-peer", defaultValue = "true")
+    boolean redisVerifyPeer;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.shared.redis.ca-cert")
+    Optional<String> redisCaCert;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.shared.timeout", defaultValue = "250")
+    int sharedTimeoutMillis;
+
+    // Smile keeps snapshot payloads compact without a hand-written value codec
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+    private ScheduledExecutorService snapshotExecutor;
+
+    // Identifies this instance's own invalidations so it can ignore them
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile SharedCache sharedCache;
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    void onStart(@Observes StartupEvent event) {
+        openSharedTier();
+        if (!snapshotEnabled) {
+            return;
+        }
+        loadSnapshot();
+        startSnapshots();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (snapshotEnabled) {
+            stopSnapshots();
+        }
+        closeSharedTier();
+    }
+
+    public Map<String, Object> get(String key) {
+        Map<String, Object> value = getNear(key);
+        if (value != null) {
+            nearHits.increment();
+            return value;
+        }
+
+        value = getShared(key);
+        if (value != null) {
+            sharedHits.increment();
+            return value;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public void put(String key, Map<String, Object> value, long ttlMillis) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        entries.put(key, new Entry(expiresAt, value, null));
+        dirty = true;
+
+        SharedCache shared = sharedCache;
+        if (shared == null) {
+            return;
+        }
+        try {
+            byte[] payload = smileMapper.writeValueAsBytes(value);
+            shared.put(key, ByteBuffer.allocate(Long.BYTES + payload.length)
+                .putLong(expiresAt).put(payload).array(), ttlMillis);
+            shared.publishInvalidation(instanceId, key);
+        } catch (IOException e) {
+            LOG.debugf("Shared cache put failed for %s: %s", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops a key from this instance, the shared tier and every other instance's near cache.
+     */
+    public void invalidate(String key) {
+        entries.remove(key);
+        dirty = true;
+
+        SharedCache shared = sharedCache;
+        if (shared == null) {
+            return;
+        }
+        try {
+            shared.delete(key);
+            shared.publishInvalidation(instanceId, key);
+        } catch (IOException e) {
+            LOG.debugf("Shared cache invalidation failed for %s: %s", key, e.getMessage());
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Expiry time of a key, or 0 if it is not cached. Falls back to the shared tier when this
+     * instance has no copy, without counting towards the hit ratios, so instances do not
+     * re-fetch what another one just refreshed.
+     */
+    long expiresAt(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null && getShared(key) != null) {
+            entry = entries.get(key);
+        }
+        return entry != null ? entry.expiresAt : 0;
+    }
+
+    /**
+     * Lookup counts and hit ratios per level since startup.
+     */
+    public Map<String, Object> stats() {
+        long near = nearHits.sum();
+        long shared = sharedHits.sum();
+        long missed = misses.sum();
+        long lookups = near + shared + missed;
+
+        SharedCache current = sharedCache;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("shared_tier", current != null ? current.type() : "none");
+        stats.put("lookups", lookups);
+        stats.put("near_hits", near);
+        stats.put("shared_hits", shared);
+        stats.put("misses", missed);
+        stats.put("near_hit_ratio", lookups > 0 ? (double) near / lookups : 0.0);
+        // Share of near misses answered by the shared tier
+        stats.put("shared_hit_ratio", shared + missed > 0 ? (double) shared / (shared + missed) : 0.0);
+        stats.put("hit_ratio", lookups > 0 ? (double) (near + shared) / lookups : 0.0);
+        return stats;
+    }
+
+    /**
+     * Connects the shared tier configured by {@code weather.cache.shared.type}. Used at
+     * startup and after a CRaC restore.
+     */
+    synchronized void openSharedTier() {
+        if (sharedCache != null) {
+            return;
+        }
+
+        SharedCache shared;
+        switch (sharedType.trim().toLowerCase()) {
+            case "none":
+            case "":
+                return;
+            case "local":
+                shared = new LocalSharedCache();
+                break;
+            case "redis":
+                if (redisUrl.isEmpty() || redisUrl.get().isBlank()) {
+                    LOG.warn("weather.cache.shared.type is redis but no Redis URL is configured, using the near cache only");
+                    return;
+                }
+                shared = new RedisSharedCache(vertx, redisUrl.get().trim(), sharedTimeoutMillis, redisVerifyPeer,
+                    redisCaCert.orElse(null));
+                break;
+            default:
+                LOG.warnf("Unknown shared cache type '%s', using the near cache only", sharedType);
+                return;
+        }
+
+        shared.onInvalidation((origin, key) -> {
+            if (!instanceId.equals(origin)) {
+                entries.remove(key);
+            }
+        });
+        sharedCache = shared;
+        LOG.infof("Using %s shared cache tier", shared.type());
+    }
+
+    /**
+     * Disconnects the shared tier. Used at shutdown and before a CRaC checkpoint, since
+     * open sockets cannot be checkpointed.
+     */
+    synchronized void closeSharedTier() {
+        SharedCache shared = sharedCache;
+        if (shared != null) {
+            sharedCache = null;
+            shared.close();
+        }
+    }
+
+    private Map<String, Object> getNear(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        try {
+            return entry.value(smileMapper);
+        } catch (IOException e) {
+            // Corrupt snapshot entry, treat as a miss
+            entries.remove(key, entry);
+            return null;
+        }
+    }
+
+    private Map<String, Object> getShared(String key) {
+        SharedCache shared = sharedCache;
+        if (shared == null) {
+            return null;
+        }
+
+        try {
+            byte[] bytes = shared.get(key);
+            if (bytes == null || bytes.length <= Long.BYTES) {
+                return null;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long expiresAt = buffer.getLong();
+            if (expiresAt <= System.currentTimeMillis()) {
+                return null;
+            }
+
+            Entry entry = new Entry(expiresAt, null, buffer.slice());
+            Map<String, Object> value = entry.value(smileMapper);
+            // Keep the shared tier's expiry so instances agree on when a value goes stale
+            entries.put(key, entry);
+            dirty = true;
+            return value;
+        } catch (IOException e) {
+            LOG.debugf("Shared cache get failed for %s: %s", key, e.getMessage());
+            return null;
+        }
+    }
+
+    synchronized void startSnapshots() {
+        if (!snapshotEnabled || snapshotExecutor != null) {
+            return;
+        }
+
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "weather-cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (snapshotIntervalSeconds > 0) {
+            snapshotExecutor.scheduleWithFixedDelay(this::writeSnapshotIfDirty,
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops the periodic snapshots and writes a final one. Used at shutdown and before a
+     * CRaC checkpoint.
+     */
+    synchronized void stopSnapshots() {
+        if (snapshotExecutor == null) {
+            return;
+        }
+
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotExecutor = null;
+        writeSnapshotIfDirty();
+    }
+
+    /**
+     * Loads unexpired entries from the snapshot file. Entries already in memory win if they
+     * expire later, so this is also safe to call after a CRaC restore. Does nothing when
+     * snapshots are disabled.
+     */
+    void loadSnapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+
+        Path path = Paths.get(snapshotPath);
+        try {
+            long now = System.currentTimeMillis();
+            List<CacheSnapshot.Record> records = CacheSnapshot.read(path, now);
+            for (CacheSnapshot.Record record : records) {
+                Entry loaded = new Entry(record.expiresAt, null, record.payload);
+                entries.merge(record.key, loaded, (current, candidate) ->
+                    candidate.expiresAt > current.expiresAt ? candidate : current);
+            }
+            if (!records.isEmpty()) {
+                LOG.infof("Loaded %d cache entries from %s", records.size(), path);
+            }
+        } catch (IOException e) {
+            LOG.warnf("Ignoring unreadable cache snapshot %s: %s", path, e.getMessage());
+        }
+    }
+
+    private void writeSnapshotIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        long now = System.currentTimeMillis();
+        List<CacheSnapshot.Record> records = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                if (entry.isExpired(now)) {
+                    entries.remove(mapEntry.getKey(), entry);
+                    continue;
+                }
+                records.add(new CacheSnapshot.Record(mapEntry.getKey(), entry.expiresAt, entry.encoded(smileMapper)));
+            }
+            CacheSnapshot.write(Paths.get(snapshotPath), records);
+        } catch (Exception e) {
+            dirty = true;
+            LOG.warnf("Failed to write cache snapshot %s: %s", snapshotPath, e.getMessage());
+        }
+    }
+
+    private static final class Entry {
+        final long expiresAt;
+        private volatile Map<String, Object> value;
+        // Smile payload from the mapped snapshot or the shared tier, dropped once decoded
+        private ByteBuffer encoded;
+
+        Entry(long expiresAt, Map<String, Object> value, ByteBuffer encoded) {
+            this.expiresAt = expiresAt;
+            this.value = value;
+            this.encoded = encoded;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        Map<String, Object> value(ObjectMapper mapper) throws IOException {
+            Map<String, Object> current = value;
+            if (current != null) {
+                return current;
+            }
+
+            synchronized (this) {
+                if (value == null) {
+                    value = mapper.readValue(CacheSnapshot.toBytes(encoded), MAP_TYPE);
+                    encoded = null;
+                }
+                return value;
+            }
+        }
+
+        ByteBuffer encoded(ObjectMapper mapper) throws IOException {
+            Map<String, Object> current = value;
+            if (current == null) {
+                synchronized (this) {
+                    if (encoded != null) {
+                        return encoded.duplicate();
+                    }
+                    current = value;
+                }
+            }
+            return ByteBuffer.wrap(mapper.writeValueAsBytes(current));
+        }
+    }
+}
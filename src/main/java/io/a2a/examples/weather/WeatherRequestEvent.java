@@ -0,0 +1,86 @@
+package io.a2a.examples.weather;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one HTTP request with its phase timings, emitted by {@link FlightRecorder}
+ * when {@code weather.flight-recorder.jfr.enabled} is set and a recording is running.
+ */
+@Name("io.a2a.weather.Request")
+@Label("Weather Request")
+@Category({"A2A Weather Agent"})
+@Description("HTTP request handled by the weather agent, with per-phase timings")
+@StackTrace(false)
+class WeatherRequestEvent extends Event {
+
+    @Label("HTTP Method")
+    String httpMethod;
+
+    @Label("Path")
+    String path;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Decode")
+    @Timespan(Timespan.NANOSECONDS)
+    long decode;
+
+    @Label("Dispatch")
+    @Timespan(Timespan.NANOSECONDS)
+    long dispatch;
+
+    @Label("Cache Lookup")
+    @Timespan(Timespan.NANOSECONDS)
+    long cache;
+
+    @Label("Upstream Connect")
+    @Timespan(Timespan.NANOSECONDS)
+    long connect;
+
+    @Label("Upstream Time To First Byte")
+    @Timespan(Timespan.NANOSECONDS)
+    long ttfb;
+
+    @Label("Upstream Read")
+    @Timespan(Timespan.NANOSECONDS)
+    long read;
+
+    @Label("Parse")
+    @Timespan(Timespan.NANOSECONDS)
+    long parse;
+
+    @Label("Serialize")
+    @Timespan(Timespan.NANOSECONDS)
+    long serialize;
+
+    @Label("Long-Poll Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long wait;
+
+    void record(FlightRecorder.Trace trace) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        httpMethod = trace.httpMethod;
+        path = trace.path;
+        operation = trace.operation;
+        decode = trace.nanos(FlightRecorder.Phase.DECODE);
+        dispatch = trace.nanos(FlightRecorder.Phase.DISPATCH);
+        cache = trace.nanos(FlightRecorder.Phase.CACHE);
+        connect = trace.nanos(FlightRecorder.Phase.CONNECT);
+        ttfb = trace.nanos(FlightRecorder.Phase.TTFB);
+        read = trace.nanos(FlightRecorder.Phase.READ);
+        parse = trace.nanos(FlightRecorder.Phase.PARSE);
+        serialize = trace.nanos(FlightRecorder.Phase.SERIALIZE);
+        wait = trace.nanos(FlightRecorder.Phase.WAIT);
+        commit();
+    }
+}
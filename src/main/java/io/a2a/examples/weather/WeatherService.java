@@ -1,26 +1,42 @@
 package io.a2a.examples.weather;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
 import org.apache.http.util.EntityUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Random;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @ApplicationScoped
 public class WeatherService {
 
+    private static final String UPSTREAM_START_ATTRIBUTE = "weather.upstreamStart";
+
     @Inject
     @ConfigProperty(name = "openweather.api.key")
     Optional<String> apiKey;
@@ -33,9 +49,82 @@ public class WeatherService {
     @ConfigProperty(name = "openweather.api.timeout", defaultValue = "5000")
     int timeout;
 
+    @Inject
+    @ConfigProperty(name = "weather.cache.ttl.current", defaultValue = "600")
+    long currentTtlSeconds;
+
+    @Inject
+    @ConfigProperty(name = "weather.cache.ttl.forecast", defaultValue = "1800")
+    long forecastTtlSeconds;
+
+    @Inject
+    WeatherCache weatherCache;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Random random = new Random();
 
+    // Shared, pooled upstream client; closed before a CRaC checkpoint and reopened after restore
+    private volatile CloseableHttpClient httpClient;
+
+    // Upstream calls in the current one-minute window, so the prefetcher can use spare quota
+    private final AtomicLong upstreamWindowStart = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        openConnections();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closeConnections();
+    }
+
+    synchronized void openConnections() {
+        if (httpClient != null) {
+            return;
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(20);
+        connectionManager.setDefaultMaxPerRoute(20);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(timeout)
+            .setConnectionRequestTimeout(timeout)
+            .setSocketTimeout(timeout)
+            .build();
+
+        httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .setRequestExecutor(new TimedRequestExecutor())
+            .build();
+    }
+
+    synchronized void closeConnections() {
+        if (httpClient == null) {
+            return;
+        }
+
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        } finally {
+            httpClient = null;
+        }
+    }
+
+    private CloseableHttpClient client() {
+        CloseableHttpClient client = httpClient;
+        if (client == null) {
+            openConnections();
+            client = httpClient;
+        }
+        return client;
+    }
+
     public boolean isConfigured() {
         return apiKey.isPresent() && !apiKey.get().trim().isEmpty();
     }
@@ -45,32 +134,16 @@ public class WeatherService {
             return getMockCurrentWeather(zipCode);
         }
 
-        try {
-            String url = String.format("%s/weather?zip=%s,%s&appid=%s&units=imperial", 
-                                    baseUrl, zipCode, countryCode, apiKey.get());
-            
-            try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-                HttpGet request = new HttpGet(url);
-                request.setHeader("User-Agent", "A2A-Weather-Agent/1.0");
-                
-                try (CloseableHttpResponse response = httpClient.execute(request)) {
-                    String responseBody = EntityUtils.toString(response.getEntity());
-                    
-                    if (response.getStatusLine().getStatusCode() == 200) {
-                        return parseOpenWeatherResponse(responseBody, zipCode);
-                    } else if (response.getStatusLine().getStatusCode() == 429) {
-                        // Rate limit exceeded, fall back to mock
-                        return getMockCurrentWeather(zipCode);
-                    } else {
-                        // API error, fall back to mock
-                        return getMockCurrentWeather(zipCode);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // Any error, fall back to mock
-            return getMockCurrentWeather(zipCode);
+        long cacheStart = System.nanoTime();
+        Map<String, Object> cached = weatherCache.get(currentCacheKey(zipCode, countryCode));
+        FlightRecorder.phase(FlightRecorder.Phase.CACHE, cacheStart);
+        if (cached != null) {
+            return cached;
         }
+
+        Map<String, Object> weather = fetchCurrentWeather(zipCode, countryCode);
+        // Rate limited, API error or unreachable: fall back to mock
+        return weather != null ? weather : getMockCurrentWeather(zipCode);
     }
 
     public Map<String, Object> getWeatherForecast(String zipCode, String countryCode) {
@@ -78,92 +151,203 @@ public class WeatherService {
             return getMockWeatherForecast(zipCode);
         }
 
+        long cacheStart = System.nanoTime();
+        Map<String, Object> cached = weatherCache.get(forecastCacheKey(zipCode, countryCode));
+        FlightRecorder.phase(FlightRecorder.Phase.CACHE, cacheStart);
+        if (cached != null) {
+            return cached;
+        }
+
+        Map<String, Object> forecast = fetchWeatherForecast(zipCode, countryCode);
+        return forecast != null ? forecast : getMockWeatherForecast(zipCode);
+    }
+
+    static String currentCacheKey(String zipCode, String countryCode) {
+        return "current:" + zipCode + "," + countryCode;
+    }
+
+    static String forecastCacheKey(String zipCode, String countryCode) {
+        return "forecast:" + zipCode + "," + countryCode;
+    }
+
+    /**
+     * Fetches fresh data for a skill from upstream and caches it, bypassing the cache
+     * lookup. Used by the prefetcher. Returns false if upstream gave no usable data.
+     */
+    boolean refresh(String skill, String zipCode, String countryCode) {
+        if (!isConfigured()) {
+            return false;
+        }
+
+        switch (skill) {
+            case "get_current_weather":
+                return fetchCurrentWeather(zipCode, countryCode) != null;
+            case "get_weather_forecast":
+                return fetchWeatherForecast(zipCode, countryCode) != null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Number of upstream calls made in the current one-minute window.
+     */
+    int upstreamCallsThisMinute() {
+        rollUpstreamWindow();
+        return upstreamCalls.get();
+    }
+
+    private Map<String, Object> fetchCurrentWeather(String zipCode, String countryCode) {
         try {
-            String url = String.format("%s/forecast?zip=%s,%s&appid=%s&units=imperial", 
+            String url = String.format("%s/weather?zip=%s,%s&appid=%s&units=imperial", 
                                     baseUrl, zipCode, countryCode, apiKey.get());
             
-            try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-                HttpGet request = new HttpGet(url);
-                request.setHeader("User-Agent", "A2A-Weather-Agent/1.0");
+            HttpGet request = new HttpGet(url);
+            request.setHeader("User-Agent", "A2A-Weather-Agent/1.0");
+            countUpstreamCall();
+            
+            try (CloseableHttpResponse response = execute(request)) {
+                long readStart = System.nanoTime();
+                String responseBody = EntityUtils.toString(response.getEntity());
+                FlightRecorder.phase(FlightRecorder.Phase.READ, readStart);
                 
-                try (CloseableHttpResponse response = httpClient.execute(request)) {
-                    String responseBody = EntityUtils.toString(response.getEntity());
-                    
-                    if (response.getStatusLine().getStatusCode() == 200) {
-                        return parseOpenWeatherForecastResponse(responseBody, zipCode);
-                    } else {
-                        return getMockWeatherForecast(zipCode);
-                    }
+                if (response.getStatusLine().getStatusCode() == 200) {
+                    long parseStart = System.nanoTime();
+                    Map<String, Object> weather = parseOpenWeatherResponse(responseBody, zipCode);
+                    FlightRecorder.phase(FlightRecorder.Phase.PARSE, parseStart);
+                    weatherCache.put(currentCacheKey(zipCode, countryCode), weather, currentTtlSeconds * 1000);
+                    return weather;
                 }
+                return null;
             }
         } catch (Exception e) {
-            return getMockWeatherForecast(zipCode);
+            return null;
         }
     }
 
-    private Map<String, Object> parseOpenWeatherResponse(String responseBody, String zipCode) {
+    private Map<String, Object> fetchWeatherForecast(String zipCode, String countryCode) {
         try {
-            JsonNode root = objectMapper.readTree(responseBody);
+            String url = String.format("%s/forecast?zip=%s,%s&appid=%s&units=imperial", 
+                                    baseUrl, zipCode, countryCode, apiKey.get());
             
-            Map<String, Object> weather = new HashMap<>();
-            weather.put("location", root.path("name").asText() + ", " + root.path("sys").path("country").asText());
-            weather.put("zip_code", zipCode);
-            weather.put("temperature", root.path("main").path("temp").asDouble());
-            weather.put("feels_like", root.path("main").path("feels_like").asDouble());
-            weather.put("humidity", root.path("main").path("humidity").asInt());
-            weather.put("pressure", root.path("main").path("pressure").asDouble());
-            weather.put("wind_speed", root.path("wind").path("speed").asDouble());
-            weather.put("wind_direction", root.path("wind").path("deg").asInt());
-            weather.put("condition", root.path("weather").get(0).path("main").asText());
-            weather.put("description", root.path("weather").get(0).path("description").asText());
-            weather.put("visibility", root.path("visibility").asInt());
-            weather.put("cloudiness", root.path("clouds").path("all").asInt());
-            weather.put("sunrise", root.path("sys").path("sunrise").asLong());
-            weather.put("sunset", root.path("sys").path("sunset").asLong());
-            weather.put("data_source", "OpenWeatherMap");
-            weather.put("timestamp", System.currentTimeMillis());
+            HttpGet request = new HttpGet(url);
+            request.setHeader("User-Agent", "A2A-Weather-Agent/1.0");
+            countUpstreamCall();
             
-            return weather;
+            try (CloseableHttpResponse response = execute(request)) {
+                long readStart = System.nanoTime();
+                String responseBody = EntityUtils.toString(response.getEntity());
+                FlightRecorder.phase(FlightRecorder.Phase.READ, readStart);
+                
+                if (response.getStatusLine().getStatusCode() == 200) {
+                    long parseStart = System.nanoTime();
+                    Map<String, Object> forecast = parseOpenWeatherForecastResponse(responseBody, zipCode);
+                    FlightRecorder.phase(FlightRecorder.Phase.PARSE, parseStart);
+                    weatherCache.put(forecastCacheKey(zipCode, countryCode), forecast, forecastTtlSeconds * 1000);
+                    return forecast;
+                }
+                return null;
+            }
         } catch (Exception e) {
-            return getMockCurrentWeather(zipCode);
+            return null;
         }
     }
 
-    private Map<String, Object> parseOpenWeatherForecastResponse(String responseBody, String zipCode) {
-        try {
-            JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode city = root.path("city");
-            JsonNode forecasts = root.path("list");
-            
-            List<Map<String, Object>> forecastList = new ArrayList<>();
-            
-            for (JsonNode forecast : forecasts) {
-                Map<String, Object> dayForecast = new HashMap<>();
-                dayForecast.put("date_time", forecast.path("dt_txt").asText());
-                dayForecast.put("temperature", forecast.path("main").path("temp").asDouble());
-                dayForecast.put("feels_like", forecast.path("main").path("feels_like").asDouble());
-                dayForecast.put("humidity", forecast.path("main").path("humidity").asInt());
-                dayForecast.put("condition", forecast.path("weather").get(0).path("main").asText());
-                dayForecast.put("description", forecast.path("weather").get(0).path("description").asText());
-                dayForecast.put("wind_speed", forecast.path("wind").path("speed").asDouble());
-                dayForecast.put("precipitation_chance", forecast.path("pop").asDouble() * 100);
-                forecastList.add(dayForecast);
-            }
-            
-            Map<String, Object> forecast = new HashMap<>();
-            forecast.put("location", city.path("name").asText() + ", " + city.path("country").asText());
-            forecast.put("zip_code", zipCode);
-            forecast.put("forecast_days", forecastList.size());
-            forecast.put("forecasts", forecastList);
-            forecast.put("data_source", "OpenWeatherMap");
-            forecast.put("timestamp", System.currentTimeMillis());
-            
-            return forecast;
-        } catch (Exception e) {
-            return getMockWeatherForecast(zipCode);
+    private CloseableHttpResponse execute(HttpGet request) throws IOException {
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(UPSTREAM_START_ATTRIBUTE, System.nanoTime());
+        return client().execute(request, context);
+    }
+
+    private void countUpstreamCall() {
+        rollUpstreamWindow();
+        upstreamCalls.incrementAndGet();
+    }
+
+    private void rollUpstreamWindow() {
+        long minute = System.currentTimeMillis() / 60_000;
+        long current = upstreamWindowStart.get();
+        if (minute != current && upstreamWindowStart.compareAndSet(current, minute)) {
+            upstreamCalls.set(0);
         }
     }
 
+    /**
+     * Exercises the mock generators and the OpenWeatherMap parsers with canned payloads
+     * so their code paths are JIT-compiled before a CRaC checkpoint. Never calls upstream.
+     */
+    void warmUp(int iterations) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            getMockCurrentWeather("10001");
+            getMockWeatherForecast("90210");
+            parseOpenWeatherResponse(SAMPLE_CURRENT_RESPONSE, "10001");
+            parseOpenWeatherForecastResponse(SAMPLE_FORECAST_RESPONSE, "10001");
+        }
+    }
+
+    private static final String SAMPLE_CURRENT_RESPONSE = "{\"name\":\"New York\",\"sys\":{\"country\":\"US\",\"sunrise\":1704110400,\"sunset\":1704146400},"
+        + "\"main\":{\"temp\":72.0,\"feels_like\":75.0,\"humidity\":65,\"pressure\":1015},\"wind\":{\"speed\":8.0,\"deg\":180},"
+        + "\"weather\":[{\"main\":\"Clouds\",\"description\":\"few clouds\"}],\"visibility\":10000,\"clouds\":{\"all\":25}}";
+
+    private static final String SAMPLE_FORECAST_RESPONSE = "{\"city\":{\"name\":\"New York\",\"country\":\"US\"},\"list\":["
+        + "{\"dt_txt\":\"2024-01-01 12:00:00\",\"main\":{\"temp\":70.0,\"feels_like\":71.0,\"humidity\":60},"
+        + "\"weather\":[{\"main\":\"Clear\",\"description\":\"clear sky\"}],\"wind\":{\"speed\":5.0},\"pop\":0.1}]}";
+
+    private Map<String, Object> parseOpenWeatherResponse(String responseBody, String zipCode) throws IOException {
+        JsonNode root = objectMapper.readTree(responseBody);
+        
+        Map<String, Object> weather = new HashMap<>();
+        weather.put("location", root.path("name").asText() + ", " + root.path("sys").path("country").asText());
+        weather.put("zip_code", zipCode);
+        weather.put("temperature", root.path("main").path("temp").asDouble());
+        weather.put("feels_like", root.path("main").path("feels_like").asDouble());
+        weather.put("humidity", root.path("main").path("humidity").asInt());
+        weather.put("pressure", root.path("main").path("pressure").asDouble());
+        weather.put("wind_speed", root.path("wind").path("speed").asDouble());
+        weather.put("wind_direction", root.path("wind").path("deg").asInt());
+        weather.put("condition", root.path("weather").get(0).path("main").asText());
+        weather.put("description", root.path("weather").get(0).path("description").asText());
+        weather.put("visibility", root.path("visibility").asInt());
+        weather.put("cloudiness", root.path("clouds").path("all").asInt());
+        weather.put("sunrise", root.path("sys").path("sunrise").asLong());
+        weather.put("sunset", root.path("sys").path("sunset").asLong());
+        weather.put("data_source", "OpenWeatherMap");
+        weather.put("timestamp", System.currentTimeMillis());
+        
+        return weather;
+    }
+
+    private Map<String, Object> parseOpenWeatherForecastResponse(String responseBody, String zipCode) throws IOException {
+        JsonNode root = objectMapper.readTree(responseBody);
+        JsonNode city = root.path("city");
+        JsonNode forecasts = root.path("list");
+        
+        List<Map<String, Object>> forecastList = new ArrayList<>();
+        
+        for (JsonNode forecast : forecasts) {
+            Map<String, Object> dayForecast = new HashMap<>();
+            dayForecast.put("date_time", forecast.path("dt_txt").asText());
+            dayForecast.put("temperature", forecast.path("main").path("temp").asDouble());
+            dayForecast.put("feels_like", forecast.path("main").path("feels_like").asDouble());
+            dayForecast.put("humidity", forecast.path("main").path("humidity").asInt());
+            dayForecast.put("condition", forecast.path("weather").get(0).path("main").asText());
+            dayForecast.put("description", forecast.path("weather").get(0).path("description").asText());
+            dayForecast.put("wind_speed", forecast.path("wind").path("speed").asDouble());
+            dayForecast.put("precipitation_chance", forecast.path("pop").asDouble() * 100);
+            forecastList.add(dayForecast);
+        }
+        
+        Map<String, Object> forecast = new HashMap<>();
+        forecast.put("location", city.path("name").asText() + ", " + city.path("country").asText());
+        forecast.put("zip_code", zipCode);
+        forecast.put("forecast_days", forecastList.size());
+        forecast.put("forecasts", forecastList);
+        forecast.put("data_source", "OpenWeatherMap");
+        forecast.put("timestamp", System.currentTimeMillis());
+        
+        return forecast;
+    }
+
     private Map<String, Object> getMockCurrentWeather(String zipCode) {
         Map<String, Object> weather = new HashMap<>();
         
@@ -249,4 +433,27 @@ public class WeatherService {
         
         return zipToLocation.getOrDefault(zipCode, "Unknown City, US");
     }
+
+    /**
+     * Reports upstream connect time (pool lease plus connect) and time to first byte to the
+     * flight recorder. By the time this runs the connection is established, and it returns
+     * once the response headers have arrived.
+     */
+    private static final class TimedRequestExecutor extends HttpRequestExecutor {
+        @Override
+        public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws IOException, HttpException {
+            Object start = context.getAttribute(UPSTREAM_START_ATTRIBUTE);
+            if (start instanceof Long) {
+                FlightRecorder.phase(FlightRecorder.Phase.CONNECT, (Long) start);
+            }
+
+            long sent = System.nanoTime();
+            try {
+                return super.execute(request, conn, context);
+            } finally {
+                FlightRecorder.phase(FlightRecorder.Phase.TTFB, sent);
+            }
+        }
+    }
 }
@@ -0,0 +1,313 @@
+package io.a2a.examples.weather;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The weather skills behind every transport. Takes skill params as a map, validates them
+ * and returns a result map, or a map with {@code error} and {@code error_code} on bad input.
+ */
+@ApplicationScoped
+public class WeatherSkills {
+
+    @Inject
+    WeatherService weatherService;
+
+    @Inject
+    Prefetcher prefetcher;
+
+    @Inject
+    AlertStore alertStore;
+
+    /**
+     * Runs a skill by id, returning an error result for unknown skills.
+     */
+    public Map<String, Object> execute(String skill, Object params) {
+        switch (skill) {
+            case "get_current_weather":
+                return getCurrentWeather(params);
+            case "get_weather_forecast":
+                return getWeatherForecast(params);
+            case "get_weather_alerts":
+                return getWeatherAlerts(params);
+            case "get_weather_history":
+                return getWeatherHistory(params);
+            default:
+                return Map.of(
+                    "error", "Unknown skill: " + skill,
+                    "error_code", "UNKNOWN_SKILL"
+                );
+        }
+    }
+
+    public Map<String, Object> getCurrentWeather(Object params) {
+        if (!(params instanceof Map)) {
+            return Map.of(
+                "error", "Invalid input: params must be an object",
+                "error_code", "INVALID_INPUT"
+            );
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> paramMap = (Map<String, Object>) params;
+        String zipCode = (String) paramMap.get("zip_code");
+        String countryCode = (String) paramMap.get("country_code");
+
+        if (zipCode == null || zipCode.trim().isEmpty()) {
+            return Map.of(
+                "error", "Invalid input: zip_code is required",
+                "error_code", "MISSING_ZIP_CODE",
+                "suggestion", "Please provide a valid ZIP code (e.g., '10001')"
+            );
+        }
+
+        if (countryCode == null || countryCode.trim().isEmpty()) {
+            countryCode = "us"; // Default to US
+        }
+
+        Units units = parseUnits(paramMap.get("units"));
+        if (units == null) {
+            return getInvalidUnitsError();
+        }
+
+        prefetcher.record("get_current_weather", zipCode, countryCode);
+
+        try {
+            return units.convert(weatherService.getCurrentWeather(zipCode, countryCode));
+        } catch (Exception e) {
+            return Map.of(
+                "error", "Failed to retrieve weather data: " + e.getMessage(),
+                "error_code", "WEATHER_API_ERROR"
+            );
+        }
+    }
+
+    public Map<String, Object> getWeatherForecast(Object params) {
+        if (!(params instanceof Map)) {
+            return Map.of("error", "Invalid input: params must be an object");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> paramMap = (Map<String, Object>) params;
+        String zipCode = (String) paramMap.get("zip_code");
+        String countryCode = (String) paramMap.get("country_code");
+
+        if (zipCode == null || zipCode.trim().isEmpty()) {
+            return Map.of(
+                "error", "Invalid input: zip_code is required",
+                "error_code", "MISSING_ZIP_CODE"
+            );
+        }
+
+        if (countryCode == null || countryCode.trim().isEmpty()) {
+            countryCode = "us";
+        }
+
+        Units units = parseUnits(paramMap.get("units"));
+        if (units == null) {
+            return getInvalidUnitsError();
+        }
+
+        prefetcher.record("get_weather_forecast", zipCode, countryCode);
+
+        try {
+            return units.convert(weatherService.getWeatherForecast(zipCode, countryCode));
+        } catch (Exception e) {
+            return Map.of(
+                "error", "Failed to retrieve weather forecast: " + e.getMessage(),
+                "error_code", "WEATHER_API_ERROR"
+            );
+        }
+    }
+
+    /**
+     * Alerts for a location, blocking the calling thread while a {@code wait} long-polls.
+     * Transports that can answer later use {@link #getWeatherAlertsAsync} instead.
+     */
+    public Map<String, Object> getWeatherAlerts(Object params) {
+        // get() rather than join() so cancelling a task interrupts a pending long-poll
+        try {
+            return getWeatherAlertsAsync(params).toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of(
+                "error", "Interrupted while waiting for alerts",
+                "error_code", "INTERRUPTED"
+            );
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    public CompletionStage<Map<String, Object>> getWeatherAlertsAsync(Object params) {
+        if (!(params instanceof Map)) {
+            return CompletableFuture.completedFuture(Map.of("error", "Invalid input: params must be an object"));
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> paramMap = (Map<String, Object>) params;
+        String zipCode = (String) paramMap.get("zip_code");
+        String countryCode = (String) paramMap.get("country_code");
+
+        if (zipCode == null || zipCode.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of(
+                "error", "Invalid input: zip_code is required",
+                "error_code", "MISSING_ZIP_CODE"
+            ));
+        }
+
+        if (countryCode == null || countryCode.trim().isEmpty()) {
+            countryCode = "us";
+        }
+
+        // With a cursor only changes since it are returned; wait long-polls for the next one
+        Object since = paramMap.get("since");
+        if (since != null && !(since instanceof String)) {
+            return CompletableFuture.completedFuture(getInvalidCursorError());
+        }
+
+        Object wait = paramMap.get("wait");
+        if (wait != null && (!(wait instanceof Number) || ((Number) wait).doubleValue() < 0)) {
+            return CompletableFuture.completedFuture(Map.of(
+                "error", "Invalid input: wait must be a number of seconds",
+                "error_code", "INVALID_WAIT"
+            ));
+        }
+
+        CompletionStage<Map<String, Object>> feed;
+        try {
+            long waitMillis = wait != null ? (long) (((Number) wait).doubleValue() * 1000) : 0;
+            feed = alertStore.query(zipCode, countryCode, (String) since, waitMillis);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(getInvalidCursorError());
+        }
+
+        String country = countryCode;
+        return feed.thenApply(changes -> {
+            List<?> alertList = (List<?>) changes.get("alerts");
+            Map<String, Object> alerts = new HashMap<>(changes);
+            alerts.put("location", getMockLocation(zipCode));
+            alerts.put("zip_code", zipCode);
+            alerts.put("country_code", country);
+            alerts.put("alert_count", alertList.size());
+            alerts.put("data_source", alertStore.dataSource());
+            alerts.put("timestamp", System.currentTimeMillis());
+            return alerts;
+        });
+    }
+
+    public Map<String, Object> getWeatherHistory(Object params) {
+        if (!(params instanceof Map)) {
+            return Map.of("error", "Invalid input: params must be an object");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> paramMap = (Map<String, Object>) params;
+        String zipCode = (String) paramMap.get("zip_code");
+        String countryCode = (String) paramMap.get("country_code");
+        String startDate = (String) paramMap.get("start_date");
+        String endDate = (String) paramMap.get("end_date");
+
+        if (zipCode == null || zipCode.trim().isEmpty()) {
+            return Map.of(
+                "error", "Invalid input: zip_code is required",
+                "error_code", "MISSING_ZIP_CODE"
+            );
+        }
+
+        if (countryCode == null || countryCode.trim().isEmpty()) {
+            countryCode = "us";
+        }
+
+        Units units = parseUnits(paramMap.get("units"));
+        if (units == null) {
+            return getInvalidUnitsError();
+        }
+
+        // Mock weather history (OpenWeatherMap historical data requires paid plan)
+        return units.convert(getMockWeatherHistory(zipCode, countryCode, startDate, endDate));
+    }
+
+    /**
+     * Parses a {@code units} param, treating anything but a string as invalid.
+     */
+    private static Units parseUnits(Object value) {
+        if (value != null && !(value instanceof String)) {
+            return null;
+        }
+        return Units.parse((String) value);
+    }
+
+    private Map<String, Object> getInvalidCursorError() {
+        return Map.of(
+            "error", "Invalid input: since must be a cursor from an earlier get_weather_alerts result",
+            "error_code", "INVALID_CURSOR"
+        );
+    }
+
+    private Map<String, Object> getInvalidUnitsError() {
+        return Map.of(
+            "error", "Invalid input: units must be one of imperial, metric, standard",
+            "error_code", "INVALID_UNITS"
+        );
+    }
+
+    private Map<String, Object> getMockWeatherHistory(String zipCode, String countryCode, String startDate, String endDate) {
+        Map<String, Object> history = new HashMap<>();
+        List<Map<String, Object>> historyList = new ArrayList<>();
+        
+        // Generate mock historical data for the last 7 days
+        long currentTime = System.currentTimeMillis();
+        for (int i = 6; i >= 0; i--) {
+            Map<String, Object> dayHistory = new HashMap<>();
+            long dayTime = currentTime - (i * 86400000); // i days ago
+            
+            dayHistory.put("date", new java.text.SimpleDateFormat("yyyy-MM-dd").format(new java.util.Date(dayTime)));
+            dayHistory.put("high_temperature", 65 + (int)(Math.random() * 20)); // 65-85°F
+            dayHistory.put("low_temperature", 45 + (int)(Math.random() * 15)); // 45-60°F
+            dayHistory.put("average_temperature", 55 + (int)(Math.random() * 15)); // 55-70°F
+            dayHistory.put("humidity", 40 + (int)(Math.random() * 40)); // 40-80%
+            dayHistory.put("precipitation", Math.random() * 0.5); // 0-0.5 inches
+            dayHistory.put("condition", new String[]{"Clear", "Partly Cloudy", "Cloudy", "Rain"}[new java.util.Random().nextInt(4)]);
+            historyList.add(dayHistory);
+        }
+        
+        history.put("location", getMockLocation(zipCode));
+        history.put("zip_code", zipCode);
+        history.put("country_code", countryCode);
+        history.put("start_date", startDate != null ? startDate : "7 days ago");
+        history.put("end_date", endDate != null ? endDate : "today");
+        history.put("historical_data", historyList);
+        history.put("data_points", historyList.size());
+        history.put("data_source", "Mock Data (Historical weather API requires paid plan)");
+        history.put("timestamp", System.currentTimeMillis());
+        
+        return history;
+    }
+
+    private String getMockLocation(String zipCode) {
+        // Simple mock location mapping for common ZIP codes
+        Map<String, String> zipToLocation = Map.of(
+            "10001", "New York, NY",
+            "90210", "Beverly Hills, CA", 
+            "60601", "Chicago, IL",
+            "33101", "Miami, FL",
+            "98101", "Seattle, WA",
+            "75201", "Dallas, TX",
+            "30301", "Atlanta, GA",
+            "02101", "Boston, MA",
+            "85001", "Phoenix, AZ",
+            "80201", "Denver, CO"
+        );
+        
+        return zipToLocation.getOrDefault(zipCode, "Unknown City, US");
+    }
+}
@@ -0,0 +1,187 @@
+package io.a2a.examples.weather;
+
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * An A2A task running one weather skill, with its state transition history.
+ *
+ * State changes and listener notifications happen under the task's lock, so a listener
+ * registered via {@link #subscribe} sees every later event exactly once and in order.
+ */
+final class WeatherTask {
+
+    static final String SUBMITTED = "submitted";
+    static final String WORKING = "working";
+    static final String COMPLETED = "completed";
+    static final String CANCELED = "canceled";
+    static final String FAILED = "failed";
+    static final String REJECTED = "rejected";
+
+    private static final Logger LOG = Logger.getLogger(WeatherTask.class);
+
+    private static final Set<String> TERMINAL_STATES = Set.of(COMPLETED, CANCELED, FAILED, REJECTED);
+
+    final String id;
+    final String contextId;
+    final String skill;
+    final Map<String, Object> params;
+    final Map<String, Object> message;
+
+    private String state;
+    private String stateTimestamp;
+    private long updatedAt;
+    private Map<String, Object> result;
+    private Future<?> future;
+    private final List<Map<String, Object>> transitions = new ArrayList<>();
+    private final List<Consumer<Map<String, Object>>> listeners = new ArrayList<>();
+
+    WeatherTask(String id, String contextId, String skill, Map<String, Object> params, Map<String, Object> message) {
+        this.id = id;
+        this.contextId = contextId;
+        this.skill = skill;
+        this.params = params;
+        this.message = message;
+        transition(SUBMITTED, null);
+    }
+
+    /**
+     * Moves the task to a new state. Terminal states are final, so a worker finishing after
+     * a cancel cannot overwrite it. Returns false if the task had already finished.
+     */
+    synchronized boolean transition(String newState, Map<String, Object> newResult) {
+        if (state != null && isTerminal()) {
+            return false;
+        }
+
+        state = newState;
+        stateTimestamp = Instant.now().toString();
+        updatedAt = System.currentTimeMillis();
+        transitions.add(Map.of("state", newState, "timestamp", stateTimestamp));
+
+        if (newResult != null) {
+            result = newResult;
+            notifyListeners(artifactEvent());
+        }
+        notifyListeners(statusEvent());
+
+        if (isTerminal()) {
+            listeners.clear();
+            future = null;
+        }
+        return true;
+    }
+
+    synchronized boolean isTerminal() {
+        return TERMINAL_STATES.contains(state);
+    }
+
+    synchronized long updatedAt() {
+        return updatedAt;
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized Future<?> future() {
+        return future;
+    }
+
+    /**
+     * Registers a listener for status and artifact events and immediately sends it the
+     * current status. Returns false if the task has already finished, in which case the
+     * listener only receives that final status.
+     */
+    synchronized boolean subscribe(Consumer<Map<String, Object>> listener) {
+        listener.accept(statusEvent());
+        if (isTerminal()) {
+            return false;
+        }
+        listeners.add(listener);
+        return true;
+    }
+
+    synchronized void unsubscribe(Consumer<Map<String, Object>> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Renders the task as an A2A Task object. The state transition history goes into
+     * metadata since the A2A history field holds messages.
+     */
+    synchronized Map<String, Object> toJson(Integer historyLength) {
+        Map<String, Object> task = new HashMap<>();
+        task.put("kind", "task");
+        task.put("id", id);
+        task.put("contextId", contextId);
+        task.put("status", status());
+
+        List<Map<String, Object>> history = message != null ? List.of(message) : List.of();
+        if (historyLength != null) {
+            history = history.subList(Math.max(0, history.size() - historyLength), history.size());
+        }
+        task.put("history", history);
+
+        if (result != null) {
+            task.put("artifacts", List.of(artifact()));
+        }
+
+        task.put("metadata", Map.of(
+            "skill", skill,
+            "stateTransitionHistory", List.copyOf(transitions)
+        ));
+        return task;
+    }
+
+    private Map<String, Object> status() {
+        return Map.of("state", state, "timestamp", stateTimestamp);
+    }
+
+    private Map<String, Object> artifact() {
+        return Map.of(
+            "artifactId", id + "-result",
+            "name", skill,
+            "parts", List.of(Map.of("kind", "data", "data", result))
+        );
+    }
+
+    private Map<String, Object> statusEvent() {
+        return Map.of(
+            "kind", "status-update",
+            "taskId", id,
+            "contextId", contextId,
+            "status", status(),
+            "final", isTerminal()
+        );
+    }
+
+    private Map<String, Object> artifactEvent() {
+        return Map.of(
+            "kind", "artifact-update",
+            "taskId", id,
+            "contextId", contextId,
+            "artifact", artifact(),
+            "lastChunk", true
+        );
+    }
+
+    private void notifyListeners(Map<String, Object> event) {
+        // Snapshot: a listener may unsubscribe itself (e.g. SSE completion) while being notified
+        for (Consumer<Map<String, Object>> listener : List.copyOf(listeners)) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Listener failed for task %s", id);
+            }
+        }
+    }
+}
@@ -231,6 +231,337 @@ else
     print_error "Missing parameter test failed"
 fi
 
+# Test A2A Task Methods
+print_status "\nTesting A2A Task Methods..."
+
+echo -e "\n12. Testing message/send..."
+TASK=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d '{
+        "jsonrpc": "2.0",
+        "method": "message/send",
+        "params": {
+            "message": {
+                "role": "user",
+                "messageId": "test-message-1",
+                "parts": [{"kind": "data", "data": {"skill": "get_current_weather", "zip_code": "10001"}}]
+            },
+            "configuration": {"blocking": true}
+        },
+        "id": 9
+    }' | jq '.')
+TASK_ID=$(echo "$TASK" | jq -r '.result.id // empty')
+
+if [ -n "$TASK_ID" ]; then
+    print_success "Message send working"
+    echo "$TASK" | jq '.result.id, .result.status.state'
+else
+    print_error "Message send failed"
+fi
+
+echo -e "\n13. Testing tasks/get..."
+TASK_GET=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d "{
+        \"jsonrpc\": \"2.0\",
+        \"method\": \"tasks/get\",
+        \"params\": {\"id\": \"$TASK_ID\", \"historyLength\": 1},
+        \"id\": 10
+    }" | jq '.')
+
+if echo "$TASK_GET" | jq -e '.result.status.state' > /dev/null; then
+    print_success "Task get working"
+    echo "$TASK_GET" | jq '.result.status.state, (.result.history | length)'
+else
+    print_error "Task get failed"
+fi
+
+echo -e "\n14. Testing tasks/get with negative historyLength..."
+TASK_GET_INVALID=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d "{
+        \"jsonrpc\": \"2.0\",
+        \"method\": \"tasks/get\",
+        \"params\": {\"id\": \"$TASK_ID\", \"historyLength\": -1},
+        \"id\": 11
+    }" | jq '.')
+
+if echo "$TASK_GET_INVALID" | jq -e '.error.code == -32602' > /dev/null; then
+    print_success "Invalid historyLength handling working"
+    echo "$TASK_GET_INVALID" | jq '.error.code, .error.message'
+else
+    print_error "Invalid historyLength test failed"
+fi
+
+echo -e "\n15. Testing tasks/cancel..."
+TASK_CANCEL=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d "{
+        \"jsonrpc\": \"2.0\",
+        \"method\": \"tasks/cancel\",
+        \"params\": {\"id\": \"$TASK_ID\"},
+        \"id\": 12
+    }" | jq '.')
+
+# The task has already finished, so canceling it is refused
+if echo "$TASK_CANCEL" | jq -e '.error.code == -32002 or .result.status.state == "canceled"' > /dev/null; then
+    print_success "Task cancel working"
+    echo "$TASK_CANCEL" | jq '.error.message // .result.status.state'
+else
+    print_error "Task cancel failed"
+fi
+
+echo -e "\n16. Testing message/stream (SSE)..."
+STREAM=$(curl -s -N --max-time 30 -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -H "Accept: text/event-stream" \
+    -d '{
+        "jsonrpc": "2.0",
+        "method": "message/stream",
+        "params": {
+            "message": {
+                "role": "user",
+                "messageId": "test-message-2",
+                "parts": [{"kind": "data", "data": {"skill": "get_weather_forecast", "zip_code": "94102"}}]
+            }
+        },
+        "id": 13
+    }' | sed -n 's/^data: *//p')
+
+if echo "$STREAM" | jq -s -e 'length > 0 and (last | .result.final == true)' > /dev/null; then
+    print_success "Message stream working"
+    echo "$STREAM" | jq -c '[.result.kind, .result.status.state]'
+else
+    print_error "Message stream failed"
+fi
+
+# Test Alert Feed
+print_status "\nTesting Alert Feed..."
+
+echo -e "\n17. Testing get_weather_alerts cursor..."
+FEED=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d '{
+        "jsonrpc": "2.0",
+        "method": "get_weather_alerts",
+        "params": {"zip_code": "10001", "country_code": "us"},
+        "id": 14
+    }' | jq '.')
+CURSOR=$(echo "$FEED" | jq -r '.result.cursor // empty')
+
+if [ -n "$CURSOR" ] && echo "$FEED" | jq -e '.result.full == true' > /dev/null; then
+    print_success "Full alert set with cursor working"
+    echo "$FEED" | jq '.result.cursor, .result.alert_count, .result.full'
+else
+    print_error "Alert cursor test failed"
+fi
+
+echo -e "\n18. Testing get_weather_alerts since and wait..."
+START=$(date +%s)
+CHANGES=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d "{
+        \"jsonrpc\": \"2.0\",
+        \"method\": \"get_weather_alerts\",
+        \"params\": {\"zip_code\": \"10001\", \"country_code\": \"us\", \"since\": \"$CURSOR\", \"wait\": 2},
+        \"id\": 15
+    }" | jq '.')
+
+# Returns the changes since the cursor, waiting up to 2 seconds when there are none
+if echo "$CHANGES" | jq -e '.result.full == false and (.result.cursor | type == "string")' > /dev/null; then
+    print_success "Incremental alerts with long-poll working ($(( $(date +%s) - START ))s)"
+    echo "$CHANGES" | jq '.result.alert_count, [.result.alerts[].change]'
+else
+    print_error "Incremental alerts test failed"
+fi
+
+echo -e "\n19. Testing invalid cursor..."
+INVALID_CURSOR=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d '{
+        "jsonrpc": "2.0",
+        "method": "get_weather_alerts",
+        "params": {"zip_code": "10001", "since": "not-a-cursor"},
+        "id": 16
+    }' | jq '.')
+
+if echo "$INVALID_CURSOR" | jq -e '.result.error_code == "INVALID_CURSOR"' > /dev/null; then
+    print_success "Invalid cursor handling working"
+    echo "$INVALID_CURSOR" | jq '.result.error, .result.error_code'
+else
+    print_error "Invalid cursor test failed"
+fi
+
+# Test HTTP+JSON and gRPC Transports
+print_status "\nTesting HTTP+JSON and gRPC Transports..."
+
+echo -e "\n20. Testing /v1 weather routes..."
+for ROUTE in current forecast alerts "history?start_date=2024-01-01&end_date=2024-01-07"; do
+    STATUS=$(curl -s -o /dev/null -w "%{http_code}" "$AGENT_URL/v1/weather/10001/$ROUTE")
+    if [ "$STATUS" = "200" ]; then
+        print_success "GET /v1/weather/10001/${ROUTE%%\?*} working"
+    else
+        print_error "GET /v1/weather/10001/${ROUTE%%\?*} returned HTTP $STATUS"
+    fi
+done
+
+echo -e "\n21. Testing /v1/message:send and /v1/tasks/{id}..."
+REST_TASK=$(curl -s -X POST "$AGENT_URL/v1/message:send" \
+    -H "Content-Type: application/json" \
+    -d '{
+        "message": {
+            "role": "user",
+            "messageId": "test-message-3",
+            "parts": [{"kind": "data", "data": {"skill": "get_current_weather", "zip_code": "10001"}}]
+        },
+        "configuration": {"blocking": true}
+    }' | jq '.')
+REST_TASK_ID=$(echo "$REST_TASK" | jq -r '.id // empty')
+
+if [ -n "$REST_TASK_ID" ] && curl -s "$AGENT_URL/v1/tasks/$REST_TASK_ID" | jq -e '.status.state == "completed"' > /dev/null; then
+    print_success "REST message send and task get working"
+    echo "$REST_TASK" | jq '.id, .status.state'
+else
+    print_error "REST message send or task get failed"
+fi
+
+echo -e "\n22. Testing /v1/tasks/{id}:cancel..."
+# A long-poll from the current cursor keeps the task working until it is canceled
+REST_WAITING=$(curl -s -X POST "$AGENT_URL/v1/message:send" \
+    -H "Content-Type: application/json" \
+    -d "{
+        \"message\": {
+            \"role\": \"user\",
+            \"messageId\": \"test-message-4\",
+            \"parts\": [{\"kind\": \"data\", \"data\": {\"skill\": \"get_weather_alerts\", \"zip_code\": \"10001\", \"since\": \"$CURSOR\", \"wait\": 20}}]
+        }
+    }" | jq -r '.id // empty')
+REST_CANCEL=$(curl -s -X POST "$AGENT_URL/v1/tasks/$REST_WAITING:cancel" | jq '.')
+
+if echo "$REST_CANCEL" | jq -e '.status.state == "canceled"' > /dev/null; then
+    print_success "REST task cancel working"
+else
+    print_error "REST task cancel failed"
+    echo "$REST_CANCEL"
+fi
+
+echo -e "\n23. Testing gRPC GetCurrentWeather..."
+# gRPC frame: uncompressed flag, 4-byte length, then LocationRequest{zip_code: "10001", country_code: "us"}
+GRPC_HEADERS=$(printf '\x00\x00\x00\x00\x0b\x0a\x0510001\x12\x02us' | curl -s -D - -o /dev/null --max-time 10 \
+    --http2-prior-knowledge -H "Content-Type: application/grpc" -H "TE: trailers" --data-binary @- \
+    "$AGENT_URL/a2a.weather.v1.WeatherAgent/GetCurrentWeather")
+
+if echo "$GRPC_HEADERS" | grep -qi '^grpc-status: 0'; then
+    print_success "gRPC working"
+elif [[ "$AGENT_URL" == *.herokuapp.com* ]]; then
+    print_warning "gRPC is not reachable through the Heroku router"
+else
+    print_error "gRPC call failed"
+    echo "$GRPC_HEADERS"
+fi
+
+echo -e "\n24. Testing gRPC in the agent card..."
+TRANSPORTS=$(curl -s "$AGENT_URL/agent" | jq -c '[.additionalInterfaces[].transport]')
+if [[ "$AGENT_URL" == *.herokuapp.com* ]]; then
+    EXPECTED='["JSONRPC","HTTP+JSON"]'
+else
+    EXPECTED='["JSONRPC","GRPC","HTTP+JSON"]'
+fi
+
+if [ "$TRANSPORTS" = "$EXPECTED" ]; then
+    print_success "Agent card lists reachable transports: $TRANSPORTS"
+else
+    print_error "Agent card lists $TRANSPORTS, expected $EXPECTED"
+fi
+
+# Test Request Validation and WebSocket Transport
+print_status "\nTesting Request Validation and WebSocket Transport..."
+
+echo -e "\n25. Testing request without a method..."
+NO_METHOD_CODE=$(curl -s -X POST "$AGENT_URL/jsonrpc" \
+    -H "Content-Type: application/json" \
+    -d '{"jsonrpc": "2.0", "params": {}, "id": 30}' | jq '.error.code')
+
+if [ "$NO_METHOD_CODE" = "-32600" ]; then
+    print_success "Request without a method rejected as invalid"
+else
+    print_error "Request without a method returned $NO_METHOD_CODE, expected -32600"
+fi
+
+echo -e "\n26. Testing JSON-RPC over WebSocket..."
+# Sends get_current_weather, weather/watch, weather/unwatch and a request without a method on one connection
+if command -v python3 > /dev/null; then
+    WS_RESULTS=$(python3 - "$AGENT_URL" <<'EOF'
+import base64, json, os, socket, ssl, struct, sys
+from urllib.parse import urlparse
+
+url = urlparse(sys.argv[1])
+secure = url.scheme == "https"
+sock = socket.create_connection((url.hostname, url.port or (443 if secure else 80)), timeout=15)
+if secure:
+    sock = ssl.create_default_context().wrap_socket(sock, server_hostname=url.hostname)
+key = base64.b64encode(os.urandom(16)).decode()
+sock.sendall(f"GET /jsonrpc/ws HTTP/1.1\r\nHost: {url.netloc}\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+             f"Sec-WebSocket-Key: {key}\r\nSec-WebSocket-Version: 13\r\n\r\n".encode())
+buffer = b""
+
+def need(size):
+    global buffer
+    while len(buffer) < size:
+        data = sock.recv(65536)
+        if not data:
+            raise EOFError("connection closed")
+        buffer += data
+
+def send(message):
+    data, mask = json.dumps(message).encode(), os.urandom(4)
+    header = struct.pack(">BB", 0x81, 0x80 | len(data)) if len(data) < 126 else struct.pack(">BBH", 0x81, 0xfe, len(data))
+    sock.sendall(header + mask + bytes(b ^ mask[i % 4] for i, b in enumerate(data)))
+
+def receive(request_id):
+    global buffer
+    while True:
+        need(2)
+        length, offset = buffer[1] & 0x7f, 2
+        if length == 126:
+            need(4)
+            length, offset = struct.unpack(">H", buffer[2:4])[0], 4
+        elif length == 127:
+            need(10)
+            length, offset = struct.unpack(">Q", buffer[2:10])[0], 10
+        need(offset + length)
+        opcode, data, buffer = buffer[0] & 0x0f, buffer[offset:offset + length], buffer[offset + length:]
+        if opcode == 1 and json.loads(data).get("id") == request_id:
+            return json.loads(data)
+
+while b"\r\n\r\n" not in buffer:
+    need(len(buffer) + 1)
+status, buffer = buffer.split(b"\r\n", 1)[0].decode(), buffer.split(b"\r\n\r\n", 1)[1]
+if " 101 " not in status:
+    sys.exit(f"upgrade {status}")
+
+location = {"zip_code": "10001", "country_code": "us"}
+send({"jsonrpc": "2.0", "method": "get_current_weather", "params": location, "id": 1})
+print("weather", "ok" if "temperature" in json.dumps(receive(1).get("result", {})) else "failed")
+send({"jsonrpc": "2.0", "method": "weather/watch", "params": location, "id": 2})
+print("watch", receive(2).get("result", {}).get("watching"))
+send({"jsonrpc": "2.0", "method": "weather/unwatch", "params": location, "id": 3})
+print("unwatch", receive(3).get("result", {}).get("watching"))
+send({"jsonrpc": "2.0", "params": {}, "id": 4})
+print("no_method", receive(4).get("error", {}).get("code"))
+EOF
+)
+    EXPECTED_WS=$'weather ok\nwatch True\nunwatch False\nno_method -32600'
+    if [ "$WS_RESULTS" = "$EXPECTED_WS" ]; then
+        print_success "WebSocket request, watch/unwatch and invalid request working"
+    else
+        print_error "WebSocket transport test failed"
+        echo "$WS_RESULTS"
+    fi
+else
+    print_warning "python3 not found, skipping WebSocket test"
+fi
+
 # Summary
 print_status "\n=== Test Summary ==="
 print_success "A2A Weather Agent testing completed!"
@@ -5,10 +5,18 @@ Tests all weather agent endpoints and methods with detailed output
 """
 
 import requests
+import base64
 import json
+import os
+import shutil
+import socket
+import ssl
+import struct
+import subprocess
 import sys
 import time
 from typing import Dict, Any, Optional
+from urllib.parse import urlparse
 
 class WeatherAgentTester:
     def __init__(self, agent_url: str):
@@ -27,7 +35,8 @@ class WeatherAgentTester:
             "ERROR": "\033[0;31m"
         }
         color = colors.get(status, colors["INFO"])
-        print(f"{color}[{status}]{'\033[0m'} {message}")
+        reset = "\033[0m"
+        print(f"{color}[{status}]{reset} {message}")
         
     def make_request(self, method: str, url: str, data: Optional[Dict] = None) -> Optional[Dict]:
         """Make HTTP request and return JSON response"""
@@ -176,6 +185,229 @@ class WeatherAgentTester:
             
         return success_count == len(tests)
         
+    def call_jsonrpc(self, method: str, params: Any) -> Optional[Dict]:
+        """Call a JSON-RPC method and return its result, or None on a transport or RPC error"""
+        data = {
+            "jsonrpc": "2.0",
+            "method": method,
+            "params": params,
+            "id": int(time.time())
+        }
+        response = self.make_request("POST", f"{self.agent_url}/jsonrpc", data)
+        if not response or 'result' not in response:
+            self.print_status(f"{method} failed: {response.get('error') if response else 'no response'}", "ERROR")
+            return None
+        return response['result']
+
+    def test_units(self) -> bool:
+        """Test unit systems and invalid units"""
+        self.print_status("Testing Units...")
+
+        tests = [
+            ("get_current_weather", "metric"),
+            ("get_weather_forecast", "standard"),
+            ("get_weather_history", "metric")
+        ]
+        for method, units in tests:
+            result = self.call_jsonrpc(method, {"zip_code": "10001", "country_code": "us", "units": units})
+            system = (result or {}).get('units', {}).get('system')
+            if system != units:
+                self.print_status(f"{method} with units={units} returned units {system}", "ERROR")
+                return False
+            self.print_status(f"{method} with units={units} working", "SUCCESS")
+            print(f"  Temperature Unit: {result['units'].get('temperature', 'N/A')}")
+
+        # Unknown and non-string units are input errors, not server errors
+        for units in ["kelvin-ish", 1]:
+            result = self.call_jsonrpc("get_current_weather", {"zip_code": "10001", "units": units})
+            if not result or result.get('error_code') != "INVALID_UNITS":
+                self.print_status(f"units={units!r} did not return INVALID_UNITS", "ERROR")
+                return False
+            self.print_status(f"Invalid units {units!r} rejected", "SUCCESS")
+
+        return True
+
+    def test_tasks(self) -> bool:
+        """Test A2A task methods: message/send, tasks/get, tasks/cancel and message/stream"""
+        self.print_status("Testing A2A Task Methods...")
+
+        message = {
+            "role": "user",
+            "messageId": f"test-{int(time.time() * 1000)}",
+            "parts": [{"kind": "data", "data": {"skill": "get_current_weather", "zip_code": "10001"}}]
+        }
+        task = self.call_jsonrpc("message/send", {"message": message, "configuration": {"blocking": True}})
+        if not task or not task.get('id'):
+            return False
+        self.print_status("message/send working", "SUCCESS")
+        print(f"  Task: {task['id']}")
+        print(f"  State: {task.get('status', {}).get('state', 'N/A')}")
+
+        fetched = self.call_jsonrpc("tasks/get", {"id": task['id'], "historyLength": 0})
+        if not fetched or fetched.get('history') != []:
+            self.print_status("tasks/get did not honour historyLength", "ERROR")
+            return False
+        self.print_status("tasks/get working", "SUCCESS")
+
+        # Negative history lengths are invalid params, not server errors
+        response = self.make_request("POST", f"{self.agent_url}/jsonrpc", {
+            "jsonrpc": "2.0",
+            "method": "tasks/get",
+            "params": {"id": task['id'], "historyLength": -1},
+            "id": int(time.time())
+        })
+        if not response or response.get('error', {}).get('code') != -32602:
+            self.print_status("tasks/get with historyLength -1 did not return -32602", "ERROR")
+            return False
+        self.print_status("Negative historyLength rejected", "SUCCESS")
+
+        # The blocking send has finished the task, so it can no longer be canceled
+        response = self.make_request("POST", f"{self.agent_url}/jsonrpc", {
+            "jsonrpc": "2.0",
+            "method": "tasks/cancel",
+            "params": {"id": task['id']},
+            "id": int(time.time())
+        })
+        state = (response or {}).get('result', {}).get('status', {}).get('state')
+        if not response or (response.get('error', {}).get('code') != -32002 and state != "canceled"):
+            self.print_status(f"tasks/cancel failed: {response}", "ERROR")
+            return False
+        self.print_status("tasks/cancel working", "SUCCESS")
+
+        return self.test_stream() and self.test_cancel_stream()
+
+    def test_stream(self) -> bool:
+        """Test message/stream over SSE until the final event"""
+        data = {
+            "jsonrpc": "2.0",
+            "method": "message/stream",
+            "params": {"message": {
+                "role": "user",
+                "messageId": f"test-{int(time.time() * 1000)}",
+                "parts": [{"kind": "data", "data": {"skill": "get_weather_forecast", "zip_code": "94102"}}]
+            }},
+            "id": int(time.time())
+        }
+        try:
+            response = self.session.post(f"{self.agent_url}/jsonrpc", json=data, timeout=30,
+                                         headers={"Accept": "text/event-stream"}, stream=True)
+            response.raise_for_status()
+            events = []
+            for line in response.iter_lines(decode_unicode=True):
+                if line and line.startswith("data:"):
+                    events.append(json.loads(line[5:]))
+                    if events[-1].get('result', {}).get('final'):
+                        break
+            response.close()
+        except (requests.exceptions.RequestException, json.JSONDecodeError) as e:
+            self.print_status(f"message/stream failed: {e}", "ERROR")
+            return False
+
+        if not events or not events[-1].get('result', {}).get('final'):
+            self.print_status("message/stream ended without a final event", "ERROR")
+            return False
+        self.print_status("message/stream working", "SUCCESS")
+        for event in events:
+            result = event['result']
+            print(f"  {result.get('kind', 'N/A')}: {result.get('status', {}).get('state', 'N/A')}")
+        return True
+
+    def test_cancel_stream(self) -> bool:
+        """Test tasks/cancel on a task that a message/stream subscriber is following"""
+        location = {"zip_code": "10001", "country_code": "us"}
+        feed = self.call_jsonrpc("get_weather_alerts", location)
+        if not feed or not feed.get('cursor'):
+            return False
+
+        # A long-poll from the current cursor keeps the task working until it is canceled
+        data = {
+            "jsonrpc": "2.0",
+            "method": "message/stream",
+            "params": {"message": {
+                "role": "user",
+                "messageId": f"test-{int(time.time() * 1000)}",
+                "parts": [{"kind": "data", "data": {"skill": "get_weather_alerts", **location,
+                                                    "since": feed['cursor'], "wait": 20}}]
+            }},
+            "id": int(time.time())
+        }
+        start = time.time()
+        try:
+            response = self.session.post(f"{self.agent_url}/jsonrpc", json=data, timeout=30,
+                                         headers={"Accept": "text/event-stream"}, stream=True)
+            response.raise_for_status()
+            lines = response.iter_lines(decode_unicode=True)
+            first = next(json.loads(line[5:]) for line in lines if line and line.startswith("data:"))
+            task_id = first.get('result', {}).get('taskId')
+
+            canceled = self.make_request("POST", f"{self.agent_url}/jsonrpc", {
+                "jsonrpc": "2.0",
+                "method": "tasks/cancel",
+                "params": {"id": task_id},
+                "id": int(time.time())
+            })
+
+            last = first
+            for line in lines:
+                if line and line.startswith("data:"):
+                    last = json.loads(line[5:])
+                    if last.get('result', {}).get('final'):
+                        break
+            response.close()
+        except (requests.exceptions.RequestException, json.JSONDecodeError, StopIteration) as e:
+            self.print_status(f"message/stream with tasks/cancel failed: {e}", "ERROR")
+            return False
+        elapsed = time.time() - start
+
+        if not canceled or canceled.get('result', {}).get('status', {}).get('state') != "canceled":
+            self.print_status(f"tasks/cancel on a streamed task failed: {canceled}", "ERROR")
+            return False
+        result = last.get('result', {})
+        if not result.get('final') or result.get('status', {}).get('state') != "canceled" or elapsed > 10:
+            self.print_status(f"Stream did not end with a canceled event ({elapsed:.1f}s): {last}", "ERROR")
+            return False
+        self.print_status(f"tasks/cancel while streaming working ({elapsed:.1f}s)", "SUCCESS")
+        return True
+
+    def test_alert_feed(self) -> bool:
+        """Test the incremental alert feed: full set, since a cursor, and long-poll wait"""
+        self.print_status("Testing Alert Feed...")
+
+        location = {"zip_code": "10001", "country_code": "us"}
+        feed = self.call_jsonrpc("get_weather_alerts", location)
+        if not feed or feed.get('full') is not True or not feed.get('cursor'):
+            self.print_status("Alerts without a cursor should be the full set with a cursor", "ERROR")
+            return False
+        self.print_status("Full alert set working", "SUCCESS")
+        print(f"  Cursor: {feed['cursor']}")
+        print(f"  Active Alerts: {feed.get('alert_count', 0)}")
+
+        changes = self.call_jsonrpc("get_weather_alerts", {**location, "since": feed['cursor']})
+        if not changes or changes.get('full') is not False:
+            self.print_status("Alerts since a current cursor should not be the full set", "ERROR")
+            return False
+        self.print_status("Alerts since cursor working", "SUCCESS")
+        print(f"  Changes: {[alert.get('change') for alert in changes.get('alerts', [])]}")
+
+        # Without changes the request is held for up to wait seconds
+        start = time.time()
+        waited = self.call_jsonrpc("get_weather_alerts", {**location, "since": changes['cursor'], "wait": 2})
+        elapsed = time.time() - start
+        if not waited or waited.get('full') is not False or elapsed > 8:
+            self.print_status(f"Long-poll failed or was not bounded by wait ({elapsed:.1f}s)", "ERROR")
+            return False
+        self.print_status(f"Long-poll working ({elapsed:.1f}s, {waited.get('alert_count', 0)} changes)", "SUCCESS")
+
+        for params, error_code in [({**location, "since": "not-a-cursor"}, "INVALID_CURSOR"),
+                                   ({**location, "wait": -1}, "INVALID_WAIT")]:
+            result = self.call_jsonrpc("get_weather_alerts", params)
+            if not result or result.get('error_code') != error_code:
+                self.print_status(f"{params} did not return {error_code}", "ERROR")
+                return False
+            self.print_status(f"{error_code} handling working", "SUCCESS")
+
+        return True
+
     def test_a2a_protocol_methods(self) -> bool:
         """Test A2A protocol methods"""
         self.print_status("Testing A2A Protocol Methods...")
@@ -252,9 +484,142 @@ class WeatherAgentTester:
         else:
             self.print_status("Missing parameter handling failed", "ERROR")
             return False
+
+        print()
+
+        # Test request without a method
+        self.print_status("Testing missing method...")
+        response = self.make_request("POST", f"{self.agent_url}/jsonrpc", {"jsonrpc": "2.0", "params": {}, "id": 997})
+
+        if response and response.get('error', {}).get('code') == -32600:
+            self.print_status("Missing method handling working", "SUCCESS")
+        else:
+            self.print_status(f"Missing method handling failed: {response}", "ERROR")
+            return False
             
         return True
         
+    def test_rest_transport(self) -> bool:
+        """Test the HTTP+JSON transport: /v1 weather routes, message:send and task routes"""
+        self.print_status("Testing HTTP+JSON Transport...")
+
+        for route in ["current", "forecast", "alerts", "history?start_date=2024-01-01&end_date=2024-01-07"]:
+            if not self.make_request("GET", f"{self.agent_url}/v1/weather/10001/{route}"):
+                self.print_status(f"GET /v1/weather/10001/{route} failed", "ERROR")
+                return False
+        self.print_status("/v1 weather routes working", "SUCCESS")
+
+        message = {
+            "role": "user",
+            "messageId": f"test-{int(time.time() * 1000)}",
+            "parts": [{"kind": "data", "data": {"skill": "get_current_weather", "zip_code": "10001"}}]
+        }
+        task = self.make_request("POST", f"{self.agent_url}/v1/message:send",
+                                 {"message": message, "configuration": {"blocking": True}})
+        if not task or not task.get('id'):
+            self.print_status("POST /v1/message:send failed", "ERROR")
+            return False
+        fetched = self.make_request("GET", f"{self.agent_url}/v1/tasks/{task['id']}")
+        if not fetched or fetched.get('status', {}).get('state') != "completed":
+            self.print_status(f"GET /v1/tasks/{{id}} failed: {fetched}", "ERROR")
+            return False
+        self.print_status("/v1/message:send and /v1/tasks/{id} working", "SUCCESS")
+
+        # A long-poll from the current cursor keeps the task working until it is canceled
+        feed = self.call_jsonrpc("get_weather_alerts", {"zip_code": "10001", "country_code": "us"})
+        if not feed:
+            return False
+        waiting = self.make_request("POST", f"{self.agent_url}/v1/message:send", {"message": {
+            **message,
+            "messageId": f"test-{int(time.time() * 1000)}-wait",
+            "parts": [{"kind": "data", "data": {"skill": "get_weather_alerts", "zip_code": "10001",
+                                                "since": feed['cursor'], "wait": 20}}]
+        }})
+        canceled = waiting and self.make_request("POST", f"{self.agent_url}/v1/tasks/{waiting['id']}:cancel")
+        if not canceled or canceled.get('status', {}).get('state') != "canceled":
+            self.print_status(f"POST /v1/tasks/{{id}}:cancel failed: {canceled}", "ERROR")
+            return False
+        self.print_status("/v1/tasks/{id}:cancel working", "SUCCESS")
+        return True
+
+    def test_grpc(self) -> bool:
+        """Test one gRPC call, using curl for HTTP/2"""
+        self.print_status("Testing gRPC Transport...")
+        if not shutil.which("curl"):
+            self.print_status("curl not found, skipping gRPC", "WARNING")
+            return True
+
+        # gRPC frame: uncompressed flag, 4-byte length, then LocationRequest{zip_code, country_code}
+        request = b"\x0a\x0510001\x12\x02us"
+        frame = b"\x00" + len(request).to_bytes(4, "big") + request
+        try:
+            result = subprocess.run(
+                ["curl", "-s", "-D", "-", "-o", "/dev/null", "--max-time", "10", "--http2-prior-knowledge",
+                 "-H", "Content-Type: application/grpc", "-H", "TE: trailers", "--data-binary", "@-",
+                 f"{self.agent_url}/a2a.weather.v1.WeatherAgent/GetCurrentWeather"],
+                input=frame, capture_output=True, timeout=15)
+        except subprocess.TimeoutExpired:
+            result = None
+        headers = result.stdout.decode(errors="replace").lower() if result else ""
+
+        card = self.make_request("GET", f"{self.agent_url}/agent") or {}
+        advertised = any(i.get('transport') == "GRPC" for i in card.get('additionalInterfaces', []))
+        if "grpc-status: 0" in headers:
+            self.print_status(f"gRPC working (advertised in agent card: {advertised})", "SUCCESS")
+            return True
+        if not advertised:
+            # Not reachable here (e.g. behind the Heroku router) and correctly not advertised
+            self.print_status("gRPC not reachable and not advertised", "WARNING")
+            return True
+        self.print_status(f"gRPC call failed: {headers.strip() or 'no response'}", "ERROR")
+        return False
+
+    def test_websocket(self) -> bool:
+        """Test the JSON-RPC WebSocket transport, including watch/unwatch"""
+        self.print_status("Testing JSON-RPC over WebSocket...")
+        try:
+            ws = WebSocketClient(self.agent_url + "/jsonrpc/ws")
+        except (OSError, ValueError) as e:
+            self.print_status(f"WebSocket connect failed: {e}", "ERROR")
+            return False
+
+        try:
+            ws.send({"jsonrpc": "2.0", "method": "get_current_weather",
+                     "params": {"zip_code": "10001", "country_code": "us"}, "id": 1})
+            response = ws.receive(1)
+            if 'result' not in response or 'error' in response['result']:
+                self.print_status(f"get_current_weather over WebSocket failed: {response}", "ERROR")
+                return False
+            self.print_status("get_current_weather over WebSocket working", "SUCCESS")
+
+            ws.send({"jsonrpc": "2.0", "method": "weather/watch",
+                     "params": {"zip_code": "10001", "country_code": "us"}, "id": 2})
+            response = ws.receive(2)
+            if response.get('result', {}).get('watching') is not True:
+                self.print_status(f"weather/watch failed: {response}", "ERROR")
+                return False
+
+            ws.send({"jsonrpc": "2.0", "method": "weather/unwatch",
+                     "params": {"zip_code": "10001", "country_code": "us"}, "id": 3})
+            response = ws.receive(3)
+            if response.get('result', {}).get('watching') is not False:
+                self.print_status(f"weather/unwatch failed: {response}", "ERROR")
+                return False
+            self.print_status("weather/watch and weather/unwatch working", "SUCCESS")
+
+            ws.send({"jsonrpc": "2.0", "params": {}, "id": 4})
+            response = ws.receive(4)
+            if response.get('error', {}).get('code') != -32600:
+                self.print_status(f"Missing method over WebSocket not rejected: {response}", "ERROR")
+                return False
+            self.print_status("Missing method over WebSocket rejected", "SUCCESS")
+            return True
+        except (OSError, EOFError, ValueError) as e:
+            self.print_status(f"WebSocket error: {e}", "ERROR")
+            return False
+        finally:
+            ws.close()
+
     def run_all_tests(self) -> bool:
         """Run all tests"""
         self.print_status(f"Testing A2A Weather Agent at: {self.agent_url}")
@@ -265,6 +630,12 @@ class WeatherAgentTester:
             ("Agent Card", self.test_agent_card),
             ("Health Check", self.test_health_check),
             ("Weather Methods", self.test_weather_methods),
+            ("Units", self.test_units),
+            ("Task Methods", self.test_tasks),
+            ("Alert Feed", self.test_alert_feed),
+            ("HTTP+JSON Transport", self.test_rest_transport),
+            ("gRPC Transport", self.test_grpc),
+            ("WebSocket Transport", self.test_websocket),
             ("A2A Protocol Methods", self.test_a2a_protocol_methods),
             ("Error Handling", self.test_error_handling)
         ]
@@ -294,6 +665,86 @@ class WeatherAgentTester:
             self.print_status(f"{total - passed} tests failed", "ERROR")
             return False
 
+class WebSocketClient:
+    """Minimal text-frame WebSocket client, enough for JSON-RPC over /jsonrpc/ws"""
+
+    def __init__(self, url: str, timeout: float = 15):
+        parsed = urlparse(url)
+        secure = parsed.scheme in ("https", "wss")
+        port = parsed.port or (443 if secure else 80)
+        self.sock = socket.create_connection((parsed.hostname, port), timeout=timeout)
+        if secure:
+            self.sock = ssl.create_default_context().wrap_socket(self.sock, server_hostname=parsed.hostname)
+
+        key = base64.b64encode(os.urandom(16)).decode()
+        self.sock.sendall((f"GET {parsed.path} HTTP/1.1\r\nHost: {parsed.netloc}\r\n"
+                           f"Upgrade: websocket\r\nConnection: Upgrade\r\n"
+                           f"Sec-WebSocket-Key: {key}\r\nSec-WebSocket-Version: 13\r\n\r\n").encode())
+        self.buffer = b""
+        while b"\r\n\r\n" not in self.buffer:
+            self._read()
+        head, self.buffer = self.buffer.split(b"\r\n\r\n", 1)
+        status = head.split(b"\r\n")[0].decode()
+        if " 101 " not in status:
+            raise ValueError(f"Upgrade refused: {status}")
+
+    def send(self, message: Dict, opcode: int = 1):
+        self._frame(json.dumps(message).encode(), opcode)
+
+    def receive(self, request_id: Any) -> Dict:
+        """Returns the response to request_id, skipping notifications"""
+        while True:
+            opcode, data = self._next_frame()
+            if opcode == 8:
+                raise EOFError("Connection closed by server")
+            if opcode == 9:
+                self._frame(data, 10)
+                continue
+            message = json.loads(data)
+            if message.get('id') == request_id:
+                return message
+
+    def close(self):
+        try:
+            self._frame(struct.pack(">H", 1000), 8)
+        except OSError:
+            pass
+        self.sock.close()
+
+    def _frame(self, data: bytes, opcode: int):
+        mask = os.urandom(4)
+        length = len(data)
+        if length < 126:
+            header = struct.pack(">BB", 0x80 | opcode, 0x80 | length)
+        elif length < 65536:
+            header = struct.pack(">BBH", 0x80 | opcode, 0x80 | 126, length)
+        else:
+            header = struct.pack(">BBQ", 0x80 | opcode, 0x80 | 127, length)
+        self.sock.sendall(header + mask + bytes(b ^ mask[i % 4] for i, b in enumerate(data)))
+
+    def _next_frame(self):
+        self._need(2)
+        opcode, length, offset = self.buffer[0] & 0x0f, self.buffer[1] & 0x7f, 2
+        if length == 126:
+            self._need(4)
+            length, offset = struct.unpack(">H", self.buffer[2:4])[0], 4
+        elif length == 127:
+            self._need(10)
+            length, offset = struct.unpack(">Q", self.buffer[2:10])[0], 10
+        self._need(offset + length)
+        data, self.buffer = self.buffer[offset:offset + length], self.buffer[offset + length:]
+        return opcode, data
+
+    def _need(self, size: int):
+        while len(self.buffer) < size:
+            self._read()
+
+    def _read(self):
+        data = self.sock.recv(65536)
+        if not data:
+            raise EOFError("Connection closed by server")
+        self.buffer += data
+
 def main():
     if len(sys.argv) != 2:
         print("Usage: python3 test_weather_agent.py <agent_url>")